@@ -8,11 +8,18 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -35,18 +42,18 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> getByBooker(long userId, String state, Integer from, Integer size) {
-        try {
-            BookingStates.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStateException("Unknown state: " + state);
-        }
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> createAll(long userId, List<BookingDto> bookingDtos) {
+        bookingDtos.forEach(bookingDto -> {
+            if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
+                throw new BadRequestException("Wrong time to book this item");
+            }
+        });
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public ResponseEntity<Object> getByBooker(long userId, String state, int from, int size, String after,
+                                              Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return search("", userId, state, from, size, after, itemId, rangeStart, rangeEnd);
     }
 
     public ResponseEntity<Object> getBookingInfo(long userId, Long bookingId) {
@@ -60,17 +67,39 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getByOwner(long userId, String state, int from, int size) {
+    public ResponseEntity<Object> changeStatuses(long userId, List<BookingStatusChangeDto> changes) {
+        return patch("", userId, changes);
+    }
+
+    public ResponseEntity<Object> getByOwner(long userId, String state, int from, int size, String after,
+                                             Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return search("/owner", userId, state, from, size, after, itemId, rangeStart, rangeEnd);
+    }
+
+    public void exportByOwner(long userId, String format, HttpServletResponse response) throws IOException {
+        stream("/owner/export?format={format}", userId, Map.of("format", format), response);
+    }
+
+    private ResponseEntity<Object> search(String path, long userId, String state, int from, int size, String after,
+                                          Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
         try {
-            BookingStates.valueOf(state);
+            for (String value : state.split(",")) {
+                BookingStates.valueOf(value.trim());
+            }
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStateException("Unknown state: " + state);
         }
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state);
+        if (after == null) parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) parameters.put("after", after);
+        if (itemId != null) parameters.put("itemId", itemId);
+        if (rangeStart != null) parameters.put("rangeStart", rangeStart);
+        if (rangeEnd != null) parameters.put("rangeEnd", rangeEnd);
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
+        return get(path + query, userId, parameters);
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,24 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
 import ru.practicum.shareit.Create;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import javax.validation.groups.ConvertGroup;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @Validated
@@ -24,6 +34,13 @@ public class BookingController {
         return bookingClient.create(id, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(@RequestHeader("X-Sharer-User-Id") long id,
+                                            @RequestBody @NotEmpty @Size(max = 10000)
+                                            List<@Valid @ConvertGroup(to = Create.class) BookingDto> bookingDtos) {
+        return bookingClient.createAll(id, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> changeStatus(@RequestHeader("X-Sharer-User-Id") long userId,
                                                @PathVariable long bookingId,
@@ -31,6 +48,13 @@ public class BookingController {
         return bookingClient.changeStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public ResponseEntity<Object> changeStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                 List<@Valid BookingStatusChangeDto> changes) {
+        return bookingClient.changeStatuses(userId, changes);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PathVariable long bookingId) {
@@ -41,15 +65,34 @@ public class BookingController {
     public ResponseEntity<Object> getByBooker(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(defaultValue = "ALL", required = false) String state,
                                               @PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
-                                              @Positive @RequestParam(defaultValue = "20", required = false) int size) {
-        return bookingClient.getByBooker(userId, state, from, size);
+                                              @Positive @RequestParam(defaultValue = "20", required = false) int size,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) Long itemId,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd) {
+        return bookingClient.getByBooker(userId, state, from, size, after, itemId, rangeStart, rangeEnd);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @RequestParam(defaultValue = "ALL", required = false) String state,
                                              @PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
-                                             @Positive @RequestParam(defaultValue = "20", required = false) int size) {
-        return bookingClient.getByOwner(userId, state, from, size);
+                                             @Positive @RequestParam(defaultValue = "20", required = false) int size,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(required = false) Long itemId,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd) {
+        return bookingClient.getByOwner(userId, state, from, size, after, itemId, rangeStart, rangeEnd);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                              @RequestParam(defaultValue = "csv", required = false) String format,
+                              HttpServletResponse response) throws IOException {
+        bookingClient.exportByOwner(userId, format, response);
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingStatusChangeDto {
+    @NotNull
+    private Long bookingId;
+    @NotNull
+    private Boolean approved;
+    private Long version;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -9,9 +10,12 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+
 public class BaseClient {
     protected final RestTemplate rest;
 
@@ -79,6 +83,44 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<String> exchangeText(HttpMethod method, String path, long userId, MediaType contentType,
+                                                  @Nullable String body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(contentType, MediaType.APPLICATION_JSON));
+        try {
+            return rest.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsString());
+        }
+    }
+
+    protected void stream(String path, HttpServletResponse response) throws IOException {
+        stream(path, null, Map.of(), response);
+    }
+
+    protected void stream(String path, Long userId, Map<String, Object> parameters, HttpServletResponse response)
+            throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.ALL));
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().putAll(headers), serverResponse -> {
+                response.setStatus(serverResponse.getRawStatusCode());
+                MediaType contentType = serverResponse.getHeaders().getContentType();
+                if (contentType != null) response.setContentType(contentType.toString());
+                String disposition = serverResponse.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+                if (disposition != null) response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+                StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                response.flushBuffer();
+                return null;
+            }, parameters);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -3,16 +3,24 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -40,6 +48,19 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getAvailability(long userId, long itemId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("End of period is before its start");
+        }
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (from != null) parameters.put("from", from);
+        if (to != null) parameters.put("to", to);
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
+        return get("/" + itemId + "/availability" + (parameters.isEmpty() ? "" : query), userId, parameters);
+    }
+
     public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
@@ -48,16 +69,46 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItem(String text, long userId, int from, int size) {
+    public ResponseEntity<Object> searchItem(String text, boolean fuzzy, long userId, int from, int size) {
         if (text.isBlank()) {
             return ResponseEntity.status(200).body(Collections.emptyList());
         }
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "fuzzy", fuzzy,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, long userId, int size) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.status(200).body(Collections.emptyList());
+        }
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(long userId, long itemId, String after, int size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (after != null) parameters.put("after", after);
+        parameters.put("size", size);
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
+        return get("/" + itemId + "/comments" + query, userId, parameters);
+    }
+
+    public void export(long userId, String format, HttpServletResponse response) throws IOException {
+        stream("/export?format={format}", userId, Map.of("format", format), response);
+    }
+
+    public ResponseEntity<String> importChunk(long userId, String ndjson) {
+        return exchangeText(HttpMethod.POST, "/import", userId, MediaType.valueOf(ItemImporter.NDJSON), ndjson);
     }
 
     public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -9,8 +10,12 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.Create;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.LocalDate;
 
 @RestController
 @Validated
@@ -19,6 +24,7 @@ import javax.validation.constraints.PositiveOrZero;
 public class ItemController {
 
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @GetMapping
     public ResponseEntity<Object> findAll(@RequestHeader("X-Sharer-User-Id") long id,
@@ -32,11 +38,35 @@ public class ItemController {
         return itemClient.findItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @PathVariable long itemId,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId, @Validated(Create.class) @RequestBody ItemDto itemDto) {
         return itemClient.create(userId, itemDto);
     }
 
+    @GetMapping("/export")
+    public void export(@RequestHeader("X-Sharer-User-Id") long userId,
+                       @RequestParam(defaultValue = "csv", required = false) String format,
+                       HttpServletResponse response) throws IOException {
+        itemClient.export(userId, format, response);
+    }
+
+    @PostMapping(value = "/import", consumes = ItemImporter.NDJSON)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        itemImporter.importItems(userId, request.getReader(), response);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId, @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, itemId, itemDto);
@@ -45,9 +75,25 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> searchItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @RequestParam String text,
+                                             @RequestParam(defaultValue = "false", required = false) boolean fuzzy,
                                              @PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
                                              @Positive @RequestParam(defaultValue = "20", required = false) int size) {
-        return itemClient.searchItem(text, userId, from, size);
+        return itemClient.searchItem(text, fuzzy, userId, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @RequestParam String prefix,
+                                          @Positive @RequestParam(defaultValue = "10", required = false) int size) {
+        return itemClient.suggest(prefix, userId, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable long itemId,
+                                              @RequestParam(required = false) String after,
+                                              @Positive @RequestParam(defaultValue = "20", required = false) int size) {
+        return itemClient.getComments(userId, itemId, after, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Create;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemImporter {
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ItemClient itemClient;
+    private final int chunkSize;
+
+    @Autowired
+    public ItemImporter(ObjectMapper objectMapper,
+                        Validator validator,
+                        ItemClient itemClient,
+                        @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.itemClient = itemClient;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(long userId, BufferedReader reader, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+        long number = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) continue;
+            chunk.add(validate(number, line));
+            if (chunk.size() == chunkSize) {
+                if (!flush(userId, chunk, response)) return;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) flush(userId, chunk, response);
+    }
+
+    private ImportLine validate(long number, String line) {
+        ItemDto item;
+        try {
+            item = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            return new ImportLine(number, null, "Malformed item: " + e.getOriginalMessage());
+        }
+        if (item == null) return new ImportLine(number, null, "Malformed item: empty line");
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item, Create.class);
+        if (violations.isEmpty()) return new ImportLine(number, item, null);
+        return new ImportLine(number, null, violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", ")));
+    }
+
+    private boolean flush(long userId, List<ImportLine> chunk, HttpServletResponse response) throws IOException {
+        List<ImportLine> valid = chunk.stream()
+                .filter(line -> line.item != null)
+                .collect(Collectors.toList());
+        if (!valid.isEmpty()) {
+            StringBuilder body = new StringBuilder();
+            for (ImportLine line : valid) {
+                body.append(objectMapper.writeValueAsString(line.item)).append('\n');
+            }
+            ResponseEntity<String> answer = itemClient.importChunk(userId, body.toString());
+            if (!answer.getStatusCode().is2xxSuccessful()) {
+                if (!response.isCommitted()) {
+                    response.setStatus(answer.getStatusCodeValue());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    if (answer.getBody() != null) response.getWriter().write(answer.getBody());
+                    return false;
+                }
+                log.warn("Item import chunk rejected by server with {}", answer.getStatusCode());
+                valid.forEach(line -> line.error = "Item not saved: server responded " + answer.getStatusCodeValue());
+            } else if (answer.getBody() != null) {
+                for (String result : answer.getBody().split("\n")) {
+                    if (result.isBlank()) continue;
+                    ItemImportResultDto saved = objectMapper.readValue(result, ItemImportResultDto.class);
+                    ImportLine line = valid.get((int) saved.getLine() - 1);
+                    line.id = saved.getId();
+                    line.error = saved.getError();
+                }
+            }
+        }
+        Writer results = response.getWriter();
+        for (ImportLine line : chunk) {
+            String error = line.error == null && line.id == null ? "Item not saved" : line.error;
+            results.write(objectMapper.writeValueAsString(new ItemImportResultDto(line.number, line.id, error)));
+            results.write('\n');
+        }
+        results.flush();
+        return true;
+    }
+
+    private static class ImportLine {
+        private final long number;
+        private final ItemDto item;
+        private Long id;
+        private String error;
+
+        private ImportLine(long number, ItemDto item, String error) {
+            this.number = number;
+            this.item = item;
+            this.error = error;
+        }
+    }
+}
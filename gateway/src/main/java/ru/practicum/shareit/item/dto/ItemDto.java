@@ -5,6 +5,7 @@ import ru.practicum.shareit.Create;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Getter
 @Setter
@@ -12,10 +13,15 @@ import javax.validation.constraints.NotNull;
 @NoArgsConstructor
 @EqualsAndHashCode
 public class ItemDto {
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final int MAX_DESCRIPTION_LENGTH = 64;
+
     private Long id;
     @NotBlank(groups = Create.class)
+    @Size(groups = Create.class, max = MAX_NAME_LENGTH)
     private String name;
     @NotBlank(groups = Create.class)
+    @Size(groups = Create.class, max = MAX_DESCRIPTION_LENGTH)
     private String description;
     @NotNull(groups = Create.class)
     private Boolean available;
@@ -30,19 +30,22 @@ public class ItemRequestClient extends BaseClient {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestsInfo(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getRequestsInfo(long userId, int from, int size, String after) {
+        return page("", userId, from, size, after);
     }
 
     public ResponseEntity<Object> getRequestInfo(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getRequestsList(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getRequestsList(long userId, int from, int size, String after) {
+        return page("/all", userId, from, size, after);
+    }
+
+    private ResponseEntity<Object> page(String path, long userId, int from, int size, String after) {
+        if (after == null) {
+            return get(path + "?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+        }
+        return get(path + "?size={size}&after={after}", userId, Map.of("size", size, "after", after));
     }
 }
@@ -25,8 +25,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsInfo(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemRequestClient.getRequestsInfo(userId);
+    public ResponseEntity<Object> getRequestsInfo(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
+                                                  @Positive @RequestParam(defaultValue = "20", required = false) int size,
+                                                  @RequestParam(required = false) String after) {
+        return itemRequestClient.getRequestsInfo(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
@@ -38,7 +41,8 @@ public class ItemRequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getRequestsList(@RequestHeader("X-Sharer-User-Id") long userId,
                                                   @PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
-                                                  @Positive @RequestParam(defaultValue = "10", required = false) int size) {
-        return itemRequestClient.getRequestsList(userId, from, size);
+                                                  @Positive @RequestParam(defaultValue = "10", required = false) int size,
+                                                  @RequestParam(required = false) String after) {
+        return itemRequestClient.getRequestsList(userId, from, size, after);
     }
 }
\ No newline at end of file
@@ -10,6 +10,10 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
@@ -24,8 +28,15 @@ public class UserClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public ResponseEntity<Object> getAllUsers(int from, int size, Long after) {
+        if (after == null) {
+            return get("?from={from}&size={size}", null, Map.of("from", from, "size", size));
+        }
+        return get("?size={size}&after={after}", null, Map.of("size", size, "after", after));
+    }
+
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        stream("/stream", response);
     }
 
     public ResponseEntity<Object> getById(long id) {
@@ -9,16 +9,29 @@ import ru.practicum.shareit.Create;
 import ru.practicum.shareit.Update;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+
 @RestController
 @RequestMapping(path = "/users")
+@Validated
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class UserController {
 
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        return userClient.getAllUsers();
+    public ResponseEntity<Object> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0", required = false) int from,
+                                              @Positive @RequestParam(defaultValue = "20", required = false) int size,
+                                              @RequestParam(required = false) Long after) {
+        return userClient.getAllUsers(from, size, after);
+    }
+
+    @GetMapping("/stream")
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        userClient.streamUsers(response);
     }
 
     @GetMapping("/{id}")
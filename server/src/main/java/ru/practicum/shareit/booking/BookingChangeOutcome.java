@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingChangeOutcome {
+    UPDATED,
+    NOT_FOUND,
+    ACCESS_DENIED,
+    ALREADY_APPROVED,
+    ALREADY_BOOKED,
+    CONFLICT
+}
@@ -3,25 +3,46 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeResult;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.search.BookingRole;
+import ru.practicum.shareit.booking.search.BookingSearch;
+import ru.practicum.shareit.booking.search.BookingState;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.OwnerExporter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingController {
-
     private final BookingService bookingService;
+    private final OwnerExporter ownerExporter;
 
     @PostMapping
     public BookingDtoResponse create(@RequestHeader("X-Sharer-User-Id") long id, @RequestBody BookingDto bookingDto) {
         return bookingService.create(id, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> createAll(@RequestHeader("X-Sharer-User-Id") long id,
+                                      @RequestBody List<BookingDto> bookingDtos) {
+        return bookingService.createAll(id, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoResponse changeStatus(@RequestHeader("X-Sharer-User-Id") long userId,
                                    @PathVariable long bookingId,
@@ -29,6 +50,12 @@ public class BookingController {
         return bookingService.changeStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingStatusChangeResult> changeStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestBody List<BookingStatusChangeDto> changes) {
+        return bookingService.changeStatuses(userId, changes);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoResponse getById(@RequestHeader("X-Sharer-User-Id") long userId,
                               @PathVariable long bookingId) {
@@ -36,20 +63,68 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getByBooker(@RequestHeader("X-Sharer-User-Id") long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getByBooker(@RequestHeader("X-Sharer-User-Id") long userId,
                                         @RequestParam(defaultValue = "ALL", required = false) String state,
                                         @RequestParam(defaultValue = "0", required = false) int from,
-                                        @RequestParam(defaultValue = "20", required = false) int size) {
-        PageRequest p = PageRequest.of(from / size, size);
-        return bookingService.getByBooker(userId, state, p);
+                                        @RequestParam(defaultValue = "20", required = false) int size,
+                                        @RequestParam(required = false) String after,
+                                        @RequestParam(required = false) Long itemId,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd) {
+        return search(BookingRole.BOOKER, userId, state, from, size, after, itemId, rangeStart, rangeEnd);
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                        @RequestParam(defaultValue = "ALL", required = false) String state,
                                        @RequestParam(defaultValue = "0", required = false) int from,
-                                       @RequestParam(defaultValue = "20", required = false) int size) {
-        PageRequest p = PageRequest.of(from / size, size);
-        return bookingService.getByOwner(userId, state, p);
+                                       @RequestParam(defaultValue = "20", required = false) int size,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(required = false) Long itemId,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd) {
+        return search(BookingRole.OWNER, userId, state, from, size, after, itemId, rangeStart, rangeEnd);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(defaultValue = "csv", required = false)
+                                                               String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName("bookings")).build().toString())
+                .body(ownerExporter.exportBookings(userId, exportFormat));
+    }
+
+    private ResponseEntity<List<BookingDtoResponse>> search(BookingRole role, long userId, String state,
+                                                            int from, int size, String after, Long itemId,
+                                                            LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        BookingSearch search = BookingSearch.builder()
+                .role(role)
+                .userId(userId)
+                .states(BookingState.parse(state))
+                .itemId(itemId)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .after(after == null ? null : KeysetCursor.decode(after))
+                .page(after == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size))
+                .build();
+        return withNextCursor(bookingService.search(search), size);
+    }
+
+    private ResponseEntity<List<BookingDtoResponse>> withNextCursor(List<BookingDtoResponse> bookings, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDtoResponse last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
@@ -31,6 +31,7 @@ public class BookingMapper {
                 booking.getEnd(),
                 booking.getItem(),
                 booking.getBooker(),
-                booking.getStatus());
+                booking.getStatus(),
+                booking.getVersion());
     }
 }
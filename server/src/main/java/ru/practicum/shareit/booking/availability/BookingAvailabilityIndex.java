@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Autowired
+    public BookingAvailabilityIndex(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking.availability.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+    }
+
+    public Booking reserve(Booking booking, UnaryOperator<Booking> save) {
+        return withTimeline(booking.getItem().getId(), timeline -> {
+            LocalDateTime now = LocalDateTime.now();
+            timeline.pruneEndedBefore(booking.getStart().isBefore(now) ? booking.getStart() : now);
+            checkConflict(timeline, booking);
+            Booking saved = save.apply(booking);
+            timeline.add(saved.getId(), saved.getStart(), saved.getEnd());
+            track(timeline, saved.getId());
+            return saved;
+        });
+    }
+
+    public void restore(Booking booking) {
+        withTimeline(booking.getItem().getId(), timeline -> {
+            if (timeline.contains(booking.getId())) return null;
+            checkConflict(timeline, booking);
+            timeline.add(booking.getId(), booking.getStart(), booking.getEnd());
+            track(timeline, booking.getId());
+            return null;
+        });
+    }
+
+    public void release(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        Transactions.afterCommit(() -> release(itemId, bookingId));
+    }
+
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing = itemIds.stream()
+                .distinct()
+                .filter(itemId -> !timelines.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) return;
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        missing.forEach(itemId -> loaded.put(itemId, new ItemTimeline()));
+        bookingRepository.findByItemIdInAndStatusIn(missing, LocalDateTime.now(), BLOCKING_STATUSES)
+                .forEach(booking -> loaded.get(booking.getItem().getId())
+                        .add(booking.getId(), booking.getStart(), booking.getEnd()));
+        loaded.values().forEach(timeline -> timeline.touch(ticks.incrementAndGet()));
+        loaded.forEach(timelines::putIfAbsent);
+        log.debug("Availability of {} items preloaded", missing.size());
+        evictIfFull(null);
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return withTimeline(itemId, timeline -> !timeline.hasConflict(start, end));
+    }
+
+    int size() {
+        return timelines.size();
+    }
+
+    private <T> T withTimeline(long itemId, Function<ItemTimeline, T> action) {
+        while (true) {
+            ItemTimeline timeline = timeline(itemId);
+            synchronized (timeline) {
+                if (timeline.isEvicted()) continue;
+                timeline.touch(ticks.incrementAndGet());
+                return action.apply(timeline);
+            }
+        }
+    }
+
+    private void track(ItemTimeline timeline, long bookingId) {
+        timeline.reserved();
+        Transactions.afterCompletion(() -> settle(timeline, bookingId, false), () -> settle(timeline, bookingId, true));
+    }
+
+    private void settle(ItemTimeline timeline, long bookingId, boolean rolledBack) {
+        synchronized (timeline) {
+            timeline.settled();
+            if (rolledBack) timeline.remove(bookingId);
+        }
+    }
+
+    private void release(long itemId, long bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) return;
+        synchronized (timeline) {
+            timeline.remove(bookingId);
+        }
+    }
+
+    private void checkConflict(ItemTimeline timeline, Booking booking) {
+        if (timeline.hasConflict(booking.getStart(), booking.getEnd())) {
+            throw new BadRequestException("Item already booked for these dates");
+        }
+    }
+
+    private ItemTimeline timeline(long itemId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) return timeline;
+        ItemTimeline loaded = load(itemId);
+        loaded.touch(ticks.incrementAndGet());
+        ItemTimeline existing = timelines.putIfAbsent(itemId, loaded);
+        if (existing != null) return existing;
+        evictIfFull(loaded);
+        return loaded;
+    }
+
+    private ItemTimeline load(long itemId) {
+        ItemTimeline timeline = new ItemTimeline();
+        bookingRepository.findByItemIdAndStatusIn(itemId, LocalDateTime.now(), BLOCKING_STATUSES)
+                .forEach(booking -> timeline.add(booking.getId(), booking.getStart(), booking.getEnd()));
+        log.debug("Availability of item {} loaded, {} reservations", itemId, timeline.size());
+        return timeline;
+    }
+
+    private void evictIfFull(ItemTimeline keep) {
+        if (timelines.size() <= maxItems || !evicting.compareAndSet(false, true)) return;
+        try {
+            int target = maxItems - maxItems / 10;
+            TreeMap<Long, Long> byLastUse = new TreeMap<>();
+            timelines.forEach((itemId, timeline) -> byLastUse.put(timeline.lastUsed(), itemId));
+            int evicted = 0;
+            for (Long itemId : byLastUse.values()) {
+                if (timelines.size() <= target) break;
+                ItemTimeline timeline = timelines.get(itemId);
+                if (timeline == null || timeline == keep) continue;
+                synchronized (timeline) {
+                    if (!timeline.evict()) continue;
+                    timelines.remove(itemId, timeline);
+                    evicted++;
+                }
+            }
+            log.debug("Availability of {} idle items evicted, {} items indexed", evicted, timelines.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
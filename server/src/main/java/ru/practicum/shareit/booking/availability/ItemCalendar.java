@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.dto.AvailabilityRangeDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+class ItemCalendar {
+    private final LocalDate base;
+    private final BitSet busyDays = new BitSet();
+
+    ItemCalendar(LocalDate base) {
+        this.base = base;
+    }
+
+    LocalDate getBase() {
+        return base;
+    }
+
+    void markBusy(LocalDateTime start, LocalDateTime end) {
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        if (last.isBefore(base)) return;
+        int from = (int) Math.max(0, offset(start.toLocalDate()));
+        busyDays.set(from, (int) offset(last) + 1);
+    }
+
+    List<AvailabilityRangeDto> ranges(LocalDate from, LocalDate to) {
+        List<AvailabilityRangeDto> ranges = new ArrayList<>();
+        int day = (int) offset(from);
+        int last = (int) offset(to);
+        while (day <= last) {
+            boolean busy = busyDays.get(day);
+            int next = busy ? busyDays.nextClearBit(day) : busyDays.nextSetBit(day);
+            if (next < 0 || next > last) next = last + 1;
+            ranges.add(new AvailabilityRangeDto(base.plusDays(day), base.plusDays(next - 1L), !busy));
+            day = next;
+        }
+        return ranges;
+    }
+
+    private long offset(LocalDate day) {
+        return ChronoUnit.DAYS.between(base, day);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.AvailabilityRangeDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.LruCache;
+import ru.practicum.shareit.common.Transactions;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+@Slf4j
+public class ItemCalendarCache {
+    private final BookingRepository bookingRepository;
+    private final LruCache<Long, ItemCalendar> calendars;
+
+    @Autowired
+    public ItemCalendarCache(BookingRepository bookingRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.item.calendar-cache.max-size:10000}") int maxSize) {
+        this.bookingRepository = bookingRepository;
+        calendars = new LruCache<>(meterRegistry, "item.calendars", maxSize);
+    }
+
+    public List<AvailabilityRangeDto> getAvailability(long itemId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        long loadedAt = calendars.generation();
+        ItemCalendar calendar = calendars.get(itemId);
+        if (calendar == null || !calendar.getBase().equals(today)) {
+            calendar = load(itemId, today);
+            calendars.put(itemId, calendar, loadedAt);
+        }
+        return calendar.ranges(from.isBefore(today) ? today : from, to);
+    }
+
+    public void invalidate(long itemId) {
+        Transactions.afterCommit(() -> calendars.remove(itemId));
+    }
+
+    int size() {
+        return calendars.size();
+    }
+
+    private ItemCalendar load(long itemId, LocalDate today) {
+        ItemCalendar calendar = new ItemCalendar(today);
+        bookingRepository.findByItemIdAndStatusIn(itemId, today.atStartOfDay(), List.of(BookingStatus.APPROVED))
+                .forEach(booking -> calendar.markBusy(booking.getStart(), booking.getEnd()));
+        log.debug("Calendar of item {} loaded", itemId);
+        return calendar;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+class ItemTimeline {
+    private static final Comparator<Reservation> BY_START = Comparator.comparing(Reservation::getStart)
+            .thenComparingLong(Reservation::getBookingId);
+
+    private final TreeSet<Reservation> reservations = new TreeSet<>(BY_START);
+    private final Map<Long, Reservation> byBooking = new HashMap<>();
+    private boolean disjoint = true;
+    private int pending;
+    private boolean evicted;
+    private volatile long lastUsed;
+
+    boolean hasConflict(LocalDateTime start, LocalDateTime end) {
+        Reservation bound = new Reservation(Long.MIN_VALUE, end, end);
+        if (disjoint) {
+            Reservation before = reservations.lower(bound);
+            return before != null && before.getEnd().isAfter(start);
+        }
+        return reservations.headSet(bound).stream()
+                .anyMatch(reservation -> reservation.getEnd().isAfter(start));
+    }
+
+    void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (byBooking.containsKey(bookingId)) return;
+        if (hasConflict(start, end)) disjoint = false;
+        Reservation reservation = new Reservation(bookingId, start, end);
+        reservations.add(reservation);
+        byBooking.put(bookingId, reservation);
+    }
+
+    void remove(long bookingId) {
+        Reservation reservation = byBooking.remove(bookingId);
+        if (reservation == null) return;
+        reservations.remove(reservation);
+        if (!disjoint) disjoint = checkDisjoint();
+    }
+
+    void pruneEndedBefore(LocalDateTime now) {
+        Iterator<Reservation> iterator = reservations.iterator();
+        boolean pruned = false;
+        while (iterator.hasNext()) {
+            Reservation reservation = iterator.next();
+            if (!reservation.getStart().isBefore(now)) break;
+            if (reservation.getEnd().isAfter(now)) continue;
+            iterator.remove();
+            byBooking.remove(reservation.getBookingId());
+            pruned = true;
+        }
+        if (pruned && !disjoint) disjoint = checkDisjoint();
+    }
+
+    void reserved() {
+        pending++;
+    }
+
+    void settled() {
+        pending--;
+    }
+
+    boolean evict() {
+        if (pending > 0) return false;
+        evicted = true;
+        return true;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void touch(long tick) {
+        lastUsed = tick;
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    boolean contains(long bookingId) {
+        return byBooking.containsKey(bookingId);
+    }
+
+    int size() {
+        return byBooking.size();
+    }
+
+    private boolean checkDisjoint() {
+        Iterator<Reservation> iterator = reservations.iterator();
+        LocalDateTime maxEnd = null;
+        while (iterator.hasNext()) {
+            Reservation reservation = iterator.next();
+            if (maxEnd != null && maxEnd.isAfter(reservation.getStart())) return false;
+            if (maxEnd == null || reservation.getEnd().isAfter(maxEnd)) maxEnd = reservation.getEnd();
+        }
+        return true;
+    }
+}
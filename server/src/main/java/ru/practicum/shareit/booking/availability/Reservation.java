@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+class Reservation {
+    private final long bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -20,4 +20,5 @@ public class BookingDtoResponse {
     private Item item;
     private User booker;
     private BookingStatus status;
+    private Long version;
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingStatusChangeDto {
+    private Long bookingId;
+    private Boolean approved;
+    private Long version;
+}
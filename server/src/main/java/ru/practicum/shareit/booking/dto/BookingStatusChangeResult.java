@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingChangeOutcome;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class BookingStatusChangeResult {
+    private Long bookingId;
+    private BookingChangeOutcome outcome;
+    private BookingStatus status;
+    private Long version;
+}
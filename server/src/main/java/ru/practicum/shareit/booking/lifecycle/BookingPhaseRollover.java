@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class BookingPhaseRollover {
+    private static final List<BookingPhase> NOT_PAST = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+    private final BookingRepository bookingRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Timer runTimer;
+    private final Map<BookingPhase, Counter> transitions = new EnumMap<>(BookingPhase.class);
+
+    @Autowired
+    public BookingPhaseRollover(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.phase.batch-size:1000}") int batchSize,
+                                @Value("${shareit.booking.phase.max-batches:100}") int maxBatches) {
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        Gauge.builder("booking.phase.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest booking phase transition not yet applied")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        runTimer = Timer.builder("booking.phase.rollover")
+                .description("Duration of a booking phase rollover run")
+                .register(meterRegistry);
+        for (BookingPhase phase : BookingPhase.values()) {
+            transitions.put(phase, Counter.builder("booking.phase.transitions")
+                    .tag("phase", phase.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase.delay:60000}")
+    public void scheduledRollover() {
+        rollover(LocalDateTime.now());
+    }
+
+    public int rollover(LocalDateTime now) {
+        return runTimer.record(() -> {
+            lagSeconds.set(lag(now).getSeconds());
+            int moved = advance(BookingPhase.PAST, p -> bookingRepository.findIdsEndedBefore(NOT_PAST, now, p))
+                    + advance(BookingPhase.CURRENT,
+                        p -> bookingRepository.findIdsStartedBefore(BookingPhase.FUTURE, now, p))
+                    + advance(BookingPhase.FUTURE, p -> bookingRepository.findIdsWithoutPhase(now, p));
+            lagSeconds.set(lag(now).getSeconds());
+            if (moved > 0) log.info("Booking phases advanced for {} bookings", moved);
+            return moved;
+        });
+    }
+
+    long getLagSeconds() {
+        return lagSeconds.get();
+    }
+
+    private int advance(BookingPhase target, Function<Pageable, List<Long>> pendingIds) {
+        int moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = pendingIds.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+            moved += bookingRepository.updatePhase(target, ids);
+            if (ids.size() < batchSize) break;
+        }
+        transitions.get(target).increment(moved);
+        return moved;
+    }
+
+    private Duration lag(LocalDateTime now) {
+        return Stream.of(bookingRepository.findOldestEndBefore(NOT_PAST, now),
+                        bookingRepository.findOldestStartBefore(BookingPhase.FUTURE, now))
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .map(oldest -> Duration.between(oldest, now))
+                .orElse(Duration.ZERO);
+    }
+}
@@ -1,100 +1,119 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingPhase;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(long userId, Pageable p);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
+    String LAST_AND_NEXT_SELECT = "select ranked.id, ranked.start_time, ranked.end_time, ranked.item_id, " +
+            "ranked.booker_id, ranked.status, ranked.version, ranked.phase " +
+            "from (select b.*, " +
+            "row_number() over (partition by b.item_id, b.start_time < :now order by b.start_time desc) as last_rank, " +
+            "row_number() over (partition by b.item_id, b.start_time < :now order by b.start_time) as next_rank " +
+            "from bookings b ";
+    String LAST_AND_NEXT_FILTER = "and b.start_time <> :now) as ranked " +
+            "where (ranked.start_time < :now and ranked.last_rank = 1) " +
+            "or (ranked.start_time > :now and ranked.next_rank = 1)";
 
-    @Query("select booking from Booking booking " +
-            "where booking.start < ?2 " +
-            "and booking.end > ?2 " +
-            "and booking.booker.id = ?1 " +
-            "order by booking.start")
-    List<Booking> findByBookerCurrent(long userId, LocalDateTime now, Pageable p);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
     @Query("select booking from Booking booking " +
-            "where booking.end < ?2 " +
-            "and booking.booker.id = ?1 " +
-            "order by booking.start desc")
-    List<Booking> findByBookerPast(long userId, LocalDateTime end, Pageable p);
+            "where booking.item.id = ?1 " +
+            "and booking.end > ?2 " +
+            "and booking.status in ?3")
+    List<Booking> findByItemIdAndStatusIn(long itemId, LocalDateTime end, Collection<BookingStatus> statuses);
 
     @Query("select booking from Booking booking " +
-            "where booking.start > ?2 " +
-            "and booking.booker.id = ?1 " +
-            "order by booking.start desc")
-    List<Booking> findByBookerFuture(long userId, LocalDateTime start, Pageable p);
+            "join fetch booking.item " +
+            "where booking.id in ?1")
+    List<Booking> findWithItemByIdIn(Collection<Long> ids);
 
-    @Query("select booking from Booking booking " +
-            "where booking.status = ?2 " +
-            "and booking.booker.id = ?1 " +
-            "order by booking.status desc")
-    List<Booking> findByBookerAndStatus(long userId, BookingStatus status, Pageable p);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking booking " +
+            "set booking.status = ?1, booking.version = booking.version + 1 " +
+            "where booking.id in ?2 " +
+            "and booking.version = ?3")
+    int updateStatus(BookingStatus status, Collection<Long> ids, long version);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(long ownerId, Pageable p);
+    @Query("select booking.id from Booking booking " +
+            "where booking.id in ?1 " +
+            "and booking.status = ?2 " +
+            "and booking.version = ?3")
+    List<Long> findIdsByStatusAndVersion(Collection<Long> ids, BookingStatus status, long version);
 
     @Query("select booking from Booking booking " +
-            "where booking.start < ?2 " +
+            "where booking.item.id in ?1 " +
             "and booking.end > ?2 " +
-            "and booking.item.owner.id = ?1 " +
-            "order by booking.start")
-    List<Booking> findByItemOwnerCurrent(long userId, LocalDateTime now, Pageable p);
+            "and booking.status in ?3")
+    List<Booking> findByItemIdInAndStatusIn(Collection<Long> itemIds, LocalDateTime end,
+                                            Collection<BookingStatus> statuses);
 
-    @Query("select booking from Booking booking " +
-            "where booking.end < ?2 " +
-            "and booking.item.owner.id = ?1 " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerPast(long userId, LocalDateTime end, Pageable p);
+    @Query("select booking.id from Booking booking " +
+            "where (booking.phase is null or booking.phase in ?1) " +
+            "and booking.end <= ?2")
+    List<Long> findIdsEndedBefore(Collection<BookingPhase> phases, LocalDateTime now, Pageable p);
 
-    @Query("select booking from Booking booking " +
-            "where booking.start > ?2 " +
-            "and booking.item.owner.id = ?1 " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerFuture(long userId, LocalDateTime start, Pageable p);
+    @Query("select booking.id from Booking booking " +
+            "where (booking.phase is null or booking.phase = ?1) " +
+            "and booking.start <= ?2 " +
+            "and booking.end > ?2")
+    List<Long> findIdsStartedBefore(BookingPhase phase, LocalDateTime now, Pageable p);
 
-    @Query("select booking from Booking booking " +
-            "where booking.status = ?2 " +
-            "and booking.item.owner.id = ?1 " +
-            "order by booking.status desc")
-    List<Booking> findByItemOwnerAndStatus(long userId, BookingStatus status, Pageable p);
+    @Query("select booking.id from Booking booking " +
+            "where booking.phase is null " +
+            "and booking.start > ?1")
+    List<Long> findIdsWithoutPhase(LocalDateTime now, Pageable p);
+
+    @Query("select min(booking.end) from Booking booking " +
+            "where (booking.phase is null or booking.phase in ?1) " +
+            "and booking.end <= ?2")
+    LocalDateTime findOldestEndBefore(Collection<BookingPhase> phases, LocalDateTime now);
+
+    @Query("select min(booking.start) from Booking booking " +
+            "where (booking.phase is null or booking.phase = ?1) " +
+            "and booking.start <= ?2 " +
+            "and booking.end > ?2")
+    LocalDateTime findOldestStartBefore(BookingPhase phase, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking booking " +
+            "set booking.phase = ?1 " +
+            "where booking.id in ?2")
+    int updatePhase(BookingPhase phase, Collection<Long> ids);
 
     Optional<Booking> findByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime end);
 
-    @Query("select booking " +
-            "from Booking booking " +
-            "where booking.item.id in :ids " +
-            "and booking.start < :now " +
-            "and booking.item.owner.id = :userId " +
-            "and booking.start in ( " +
-            "select max(b.start) " +
-            "from Booking b " +
-            "where b.item.id = booking.item.id " +
-            "and b.start < :now) ")
-    List<Booking> findBookingsLast(@Param("ids") List<Long> ids,
-                                   @Param("now") LocalDateTime now,
-                                   @Param("userId") long userId);
-
-    @Query("select distinct booking " +
-            "from Booking booking " +
-            "where booking.start > :now " +
-            "and booking.item.id in :ids " +
-            "and booking.item.owner.id = :userId " +
-            "and booking.start in ( " +
-            "select min(b.start) " +
-            "from Booking b " +
-            "where b.item.id = booking.item.id " +
-            "and b.start > :now) ")
-    List<Booking> findBookingsNext(@Param("ids") List<Long> ids,
-                                   @Param("now") LocalDateTime now,
-                                   @Param("userId") long userId);
+    @Query(value = LAST_AND_NEXT_SELECT +
+            "join items i on i.id = b.item_id " +
+            "where i.id in (:ids) " +
+            "and i.owner_id = :userId " +
+            LAST_AND_NEXT_FILTER,
+            nativeQuery = true)
+    List<Booking> findLastAndNextBookings(@Param("ids") List<Long> ids,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("userId") long userId);
+
+    @Query(value = LAST_AND_NEXT_SELECT +
+            "where b.item_id in (:ids) " +
+            LAST_AND_NEXT_FILTER,
+            nativeQuery = true)
+    List<Booking> findLastAndNextBookings(@Param("ids") List<Long> ids,
+                                          @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.search.BookingSearch;
+
+import java.util.List;
+
+public interface BookingSearchRepository {
+    List<Booking> search(BookingSearch search);
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.search.BookingSearch;
+import ru.practicum.shareit.booking.search.BookingState;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    private final Map<String, String> compiledQueries = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Booking> search(BookingSearch search) {
+        Set<BookingState> states = effectiveStates(search.getStates());
+        Set<BookingStatus> statuses = states.stream()
+                .map(BookingState::getStatus)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        boolean timed = states.stream().anyMatch(state -> state.getTimeCondition() != null);
+        String jpql = compiledQueries.computeIfAbsent(key(search, states), key -> compile(search, states));
+
+        TypedQuery<Booking> query = em.createQuery(jpql, Booking.class)
+                .setParameter("userId", search.getUserId())
+                .setHint(FETCH_GRAPH_HINT, em.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setFirstResult((int) search.getPage().getOffset())
+                .setMaxResults(search.getPage().getPageSize());
+        if (timed) query.setParameter("now", search.getNow());
+        if (!statuses.isEmpty()) query.setParameter("statuses", statuses);
+        if (search.getItemId() != null) query.setParameter("itemId", search.getItemId());
+        if (search.getRangeStart() != null) query.setParameter("rangeStart", search.getRangeStart());
+        if (search.getRangeEnd() != null) query.setParameter("rangeEnd", search.getRangeEnd());
+        if (search.getAfter() != null) {
+            query.setParameter("afterStart", search.getAfter().getTime());
+            query.setParameter("afterId", search.getAfter().getId());
+        }
+        return query.getResultList();
+    }
+
+    private Set<BookingState> effectiveStates(Set<BookingState> states) {
+        if (states.isEmpty() || states.contains(BookingState.ALL)) return EnumSet.noneOf(BookingState.class);
+        return states;
+    }
+
+    private String key(BookingSearch search, Set<BookingState> states) {
+        return search.getRole() + ":" + states + ":"
+                + (search.getItemId() != null) + (search.getRangeStart() != null)
+                + (search.getRangeEnd() != null) + (search.getAfter() != null) + search.isAscending();
+    }
+
+    private String compile(BookingSearch search, Set<BookingState> states) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add(search.getRole().getUserPath() + " = :userId");
+        List<String> stateConditions = states.stream()
+                .map(BookingState::getTimeCondition)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (states.stream().anyMatch(state -> state.getStatus() != null)) {
+            stateConditions.add("booking.status in :statuses");
+        }
+        if (!stateConditions.isEmpty()) conditions.add("(" + String.join(" or ", stateConditions) + ")");
+        if (search.getItemId() != null) conditions.add("booking.item.id = :itemId");
+        if (search.getRangeStart() != null) conditions.add("booking.end > :rangeStart");
+        if (search.getRangeEnd() != null) conditions.add("booking.start < :rangeEnd");
+        String direction = search.isAscending() ? "" : " desc";
+        if (search.getAfter() != null) {
+            String op = search.isAscending() ? ">" : "<";
+            conditions.add("(booking.start " + op + " :afterStart "
+                    + "or (booking.start = :afterStart and booking.id " + op + " :afterId))");
+        }
+        return "select booking from Booking booking where " + String.join(" and ", conditions)
+                + " order by booking.start" + direction + ", booking.id" + direction;
+    }
+}
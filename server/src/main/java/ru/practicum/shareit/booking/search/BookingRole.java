@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.search;
+
+public enum BookingRole {
+    BOOKER("booking.booker.id", "Booker not found"),
+    OWNER("booking.item.owner.id", "Owner not found");
+
+    private final String userPath;
+    private final String notFoundMessage;
+
+    BookingRole(String userPath, String notFoundMessage) {
+        this.userPath = userPath;
+        this.notFoundMessage = notFoundMessage;
+    }
+
+    public String getUserPath() {
+        return userPath;
+    }
+
+    public String getNotFoundMessage() {
+        return notFoundMessage;
+    }
+}
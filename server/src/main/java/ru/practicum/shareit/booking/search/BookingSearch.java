@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.search;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Builder
+public class BookingSearch {
+    @NonNull
+    private final BookingRole role;
+    private final long userId;
+    @Builder.Default
+    private final Set<BookingState> states = EnumSet.of(BookingState.ALL);
+    private final Long itemId;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final KeysetCursor after;
+    @NonNull
+    private final Pageable page;
+    @Builder.Default
+    private final LocalDateTime now = LocalDateTime.now();
+
+    public boolean isAscending() {
+        return states.size() == 1 && states.contains(BookingState.CURRENT);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.search;
+
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum BookingState {
+    ALL(null, null),
+    CURRENT("(booking.phase = " + Phases.CURRENT + " and booking.end > :now) "
+            + "or ((booking.phase = " + Phases.FUTURE + " or booking.phase is null) "
+            + "and booking.start < :now and booking.end > :now)", null),
+    PAST("booking.phase = " + Phases.PAST + " "
+            + "or ((booking.phase in (" + Phases.FUTURE + ", " + Phases.CURRENT + ") or booking.phase is null) "
+            + "and booking.end < :now)", null),
+    FUTURE("(booking.phase = " + Phases.FUTURE + " or booking.phase is null) and booking.start > :now", null),
+    WAITING(null, BookingStatus.WAITING),
+    REJECTED(null, BookingStatus.REJECTED);
+
+    private final String timeCondition;
+    private final BookingStatus status;
+
+    BookingState(String timeCondition, BookingStatus status) {
+        this.timeCondition = timeCondition;
+        this.status = status;
+    }
+
+    public String getTimeCondition() {
+        return timeCondition;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    private static final class Phases {
+        private static final String FUTURE = literal(BookingPhase.FUTURE);
+        private static final String CURRENT = literal(BookingPhase.CURRENT);
+        private static final String PAST = literal(BookingPhase.PAST);
+
+        private static String literal(BookingPhase phase) {
+            return BookingPhase.class.getName() + "." + phase.name();
+        }
+    }
+
+    public static Set<BookingState> parse(String states) {
+        try {
+            EnumSet<BookingState> result = EnumSet.noneOf(BookingState.class);
+            Arrays.stream(states.split(","))
+                    .map(String::trim)
+                    .map(BookingState::valueOf)
+                    .forEach(result::add);
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown state: " + states);
+        }
+    }
+}
@@ -3,17 +3,26 @@ package ru.practicum.shareit.booking.service;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeResult;
+import ru.practicum.shareit.booking.search.BookingSearch;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDtoResponse create(long id, BookingDto bookingDto);
 
+    List<BookingDto> createAll(long bookerId, List<BookingDto> bookingDtos);
+
     BookingDtoResponse changeStatus(long userId, long bookingId, boolean approved);
 
+    List<BookingStatusChangeResult> changeStatuses(long userId, List<BookingStatusChangeDto> changes);
+
     BookingDtoResponse getBookingInfo(long userId, long bookingId);
 
     List<BookingDtoResponse> getByBooker(long userId, String state, Pageable p);
 
     List<BookingDtoResponse> getByOwner(long userId, String state, Pageable p);
+
+    List<BookingDtoResponse> search(BookingSearch search);
 }
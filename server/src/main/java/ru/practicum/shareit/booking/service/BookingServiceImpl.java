@@ -1,58 +1,64 @@
 package ru.practicum.shareit.booking.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingChangeOutcome;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemCalendarCache;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeResult;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.strategy.BookingParams;
-import ru.practicum.shareit.booking.strategy.searchByBooker.BookingSearchByBooker;
-import ru.practicum.shareit.booking.strategy.searchByOwner.BookingSearchByOwner;
+import ru.practicum.shareit.booking.search.BookingRole;
+import ru.practicum.shareit.booking.search.BookingSearch;
+import ru.practicum.shareit.booking.search.BookingState;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.stats.ItemStatsUpdater;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @Transactional(readOnly = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
+    private final ExistenceService existence;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final Map<String, BookingSearchByBooker> bookingSearchByBookerMap = new HashMap<>();
-    private final Map<String, BookingSearchByOwner> bookingSearchByOwnerMap = new HashMap<>();
-
-    @Autowired
-    public BookingServiceImpl(UserRepository userRepository,
-                              BookingRepository bookingRepository,
-                              ItemRepository itemRepository,
-                              List<BookingSearchByBooker> bookingSearchesByBooker,
-                              List<BookingSearchByOwner> bookingSearchesByOwner) {
-        this.userRepository = userRepository;
-        this.bookingRepository = bookingRepository;
-        this.itemRepository = itemRepository;
-        bookingSearchesByBooker.forEach(bookingSearch -> bookingSearchByBookerMap.put(bookingSearch.getType(), bookingSearch));
-        bookingSearchesByOwner.forEach(bookingSearch -> bookingSearchByOwnerMap.put(bookingSearch.getType(), bookingSearch));
-    }
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemCalendarCache itemCalendars;
+    private final ItemViewCache itemViews;
+    private final ItemStatsUpdater itemStats;
 
     @Override
     @Transactional
     public BookingDtoResponse create(long bookerId, BookingDto bookingDto) {
-        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() -> {
+        Item item = itemRepository.findWithOwnerAndRequestById(bookingDto.getItemId()).orElseThrow(() -> {
             throw new ObjectNotFoundException("Item not found");
         });
         User user = userRepository.findById(bookerId).orElseThrow(() -> {
@@ -61,12 +67,43 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId() == bookerId) throw new ObjectNotFoundException("You can't book your item");
         if (!item.getAvailable()) throw new BadRequestException("Item not available now for booking");
         bookingDto.setStatus(BookingStatus.WAITING);
-        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDto, item, user));
+        Booking booking = availabilityIndex.reserve(BookingMapper.toBooking(bookingDto, item, user),
+                bookingRepository::save);
+        itemViews.invalidate(item.getId());
+        itemStats.itemChanged(item.getId());
         BookingDtoResponse bookingDtoResponse = BookingMapper.toBookingDtoResponse(booking);
         log.info("Item created");
         return bookingDtoResponse;
     }
 
+    @Override
+    @Transactional
+    public List<BookingDto> createAll(long bookerId, List<BookingDto> bookingDtos) {
+        existence.requireUser(bookerId, "Wrong user");
+        User user = userRepository.getReferenceById(bookerId);
+        Set<Long> itemIds = bookingDtos.stream().map(BookingDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        availabilityIndex.preload(items.keySet());
+        List<BookingDto> created = new ArrayList<>(bookingDtos.size());
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) throw new ObjectNotFoundException("Item " + bookingDto.getItemId() + " not found");
+            if (item.getOwner().getId() == bookerId) throw new ObjectNotFoundException("You can't book your item");
+            if (!item.getAvailable())
+                throw new BadRequestException("Item " + item.getId() + " not available now for booking");
+            bookingDto.setId(null);
+            bookingDto.setStatus(BookingStatus.WAITING);
+            Booking booking = availabilityIndex.reserve(BookingMapper.toBooking(bookingDto, item, user),
+                    bookingRepository::save);
+            created.add(BookingMapper.toBookingDto(booking));
+        }
+        itemViews.invalidateAll(items.keySet());
+        itemStats.itemsChanged(items.keySet());
+        log.info("{} bookings created", created.size());
+        return created;
+    }
+
     @Override
     @Transactional
     public BookingDtoResponse changeStatus(long userId, long bookingId, boolean approved) {
@@ -78,11 +115,65 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() == BookingStatus.APPROVED)
             throw new BadRequestException("You can't change status after approving");
         if (approved) {
+            if (booking.getStatus() != BookingStatus.WAITING) availabilityIndex.restore(booking);
             booking.setStatus(BookingStatus.APPROVED);
-        } else booking.setStatus(BookingStatus.REJECTED);
+            itemCalendars.invalidate(item.getId());
+        } else {
+            if (booking.getStatus() == BookingStatus.WAITING) availabilityIndex.release(booking);
+            booking.setStatus(BookingStatus.REJECTED);
+        }
+        itemViews.invalidate(item.getId());
+        itemStats.itemChanged(item.getId());
         return BookingMapper.toBookingDtoResponse(bookingRepository.save(booking));
     }
 
+    @Override
+    @Transactional
+    public List<BookingStatusChangeResult> changeStatuses(long userId, List<BookingStatusChangeDto> changes) {
+        changes.forEach(change -> {
+            if (change.getBookingId() == null || change.getApproved() == null)
+                throw new BadRequestException("Booking id and decision are required");
+        });
+        Map<Long, Booking> bookings = bookingRepository.findWithItemByIdIn(changes.stream()
+                        .map(BookingStatusChangeDto::getBookingId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingStatusChangeResult> results = new LinkedHashMap<>();
+        Map<BookingStatus, Map<Long, List<Booking>>> updates = new EnumMap<>(BookingStatus.class);
+        for (BookingStatusChangeDto change : changes) {
+            long bookingId = change.getBookingId();
+            if (results.containsKey(bookingId)) continue;
+            Booking booking = bookings.get(bookingId);
+            BookingChangeOutcome outcome = checkChange(userId, change, booking);
+            BookingStatus target = change.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            if (outcome == null && target == BookingStatus.APPROVED && booking.getStatus() != BookingStatus.WAITING) {
+                try {
+                    availabilityIndex.restore(booking);
+                } catch (BadRequestException e) {
+                    outcome = BookingChangeOutcome.ALREADY_BOOKED;
+                }
+            }
+            if (outcome != null) {
+                results.put(bookingId, outcome == BookingChangeOutcome.NOT_FOUND
+                        || outcome == BookingChangeOutcome.ACCESS_DENIED
+                        ? new BookingStatusChangeResult(bookingId, outcome, null, null)
+                        : new BookingStatusChangeResult(bookingId, outcome, booking.getStatus(), booking.getVersion()));
+                continue;
+            }
+            results.put(bookingId, null);
+            updates.computeIfAbsent(target, status -> new HashMap<>())
+                    .computeIfAbsent(booking.getVersion(), version -> new ArrayList<>())
+                    .add(booking);
+        }
+        updates.forEach((target, byVersion) -> byVersion.forEach((version, group) ->
+                applyStatus(target, version, group, results)));
+        log.info("Owner {} changed status of {} bookings", userId, updates.values().stream()
+                .flatMap(byVersion -> byVersion.values().stream())
+                .mapToInt(List::size)
+                .sum());
+        return new ArrayList<>(results.values());
+    }
+
     @Override
     public BookingDtoResponse getBookingInfo(long userId, long bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
@@ -96,23 +187,65 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDtoResponse> getByBooker(long userId, String state, Pageable p) {
-        userRepository.findById(userId).orElseThrow(() -> {
-            throw new ObjectNotFoundException("Booker not found");
-        });
-        List<Booking> books = bookingSearchByBookerMap.get(state).search(new BookingParams(userId, p));
-        return books.stream()
-                .map(BookingMapper::toBookingDtoResponse)
-                .collect(Collectors.toList());
+        return search(BookingSearch.builder()
+                .role(BookingRole.BOOKER)
+                .userId(userId)
+                .states(BookingState.parse(state))
+                .page(p)
+                .build());
     }
 
     @Override
     public List<BookingDtoResponse> getByOwner(long userId, String state, Pageable p) {
-        userRepository.findById(userId).orElseThrow(() -> {
-            throw new ObjectNotFoundException("Owner not found");
-        });
-        List<Booking> books = bookingSearchByOwnerMap.get(state).search(new BookingParams(userId, p));
-        return books.stream()
+        return search(BookingSearch.builder()
+                .role(BookingRole.OWNER)
+                .userId(userId)
+                .states(BookingState.parse(state))
+                .page(p)
+                .build());
+    }
+
+    private BookingChangeOutcome checkChange(long userId, BookingStatusChangeDto change, Booking booking) {
+        if (booking == null) return BookingChangeOutcome.NOT_FOUND;
+        if (booking.getItem().getOwner().getId() != userId) return BookingChangeOutcome.ACCESS_DENIED;
+        if (booking.getStatus() == BookingStatus.APPROVED) return BookingChangeOutcome.ALREADY_APPROVED;
+        if (change.getVersion() != null && !change.getVersion().equals(booking.getVersion()))
+            return BookingChangeOutcome.CONFLICT;
+        return null;
+    }
+
+    private void applyStatus(BookingStatus target, long version, List<Booking> group,
+                             Map<Long, BookingStatusChangeResult> results) {
+        List<Long> ids = group.stream().map(Booking::getId).collect(Collectors.toList());
+        int updated = bookingRepository.updateStatus(target, ids, version);
+        Set<Long> applied = updated == ids.size()
+                ? new HashSet<>(ids)
+                : new HashSet<>(bookingRepository.findIdsByStatusAndVersion(ids, target, version + 1));
+        Set<Long> changedItems = new HashSet<>();
+        for (Booking booking : group) {
+            if (applied.contains(booking.getId())) {
+                if (target == BookingStatus.REJECTED && booking.getStatus() == BookingStatus.WAITING)
+                    availabilityIndex.release(booking);
+                if (target == BookingStatus.APPROVED) itemCalendars.invalidate(booking.getItem().getId());
+                itemViews.invalidate(booking.getItem().getId());
+                changedItems.add(booking.getItem().getId());
+                results.put(booking.getId(), new BookingStatusChangeResult(booking.getId(),
+                        BookingChangeOutcome.UPDATED, target, version + 1));
+            } else {
+                if (target == BookingStatus.APPROVED && booking.getStatus() != BookingStatus.WAITING)
+                    availabilityIndex.release(booking);
+                results.put(booking.getId(), new BookingStatusChangeResult(booking.getId(),
+                        BookingChangeOutcome.CONFLICT, booking.getStatus(), version));
+            }
+        }
+        itemStats.itemsChanged(changedItems);
+    }
+
+    @Override
+    public List<BookingDtoResponse> search(BookingSearch search) {
+        existence.requireUser(search.getUserId(), search.getRole().getNotFoundMessage());
+        return bookingRepository.search(search).stream()
                 .map(BookingMapper::toBookingDtoResponse)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter sizeEvictions;
+    private long generation;
+
+    public LruCache(MeterRegistry meterRegistry, String name, int maxSize) {
+        this.maxSize = maxSize;
+        sizeEvictions = Counter.builder("cache.evictions")
+                .description("Entries removed from the cache")
+                .tag("cache", name)
+                .tag("cause", "size")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, LruCache::size)
+                .description("Number of entries in the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized boolean put(K key, V value, long loadedAt) {
+        if (generation != loadedAt) return false;
+        entries.put(key, value);
+        Iterator<V> eldest = entries.values().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+        return true;
+    }
+
+    public synchronized boolean remove(K key) {
+        generation++;
+        return entries.remove(key) != null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
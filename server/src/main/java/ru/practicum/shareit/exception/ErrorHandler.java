@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -23,5 +24,11 @@ public class ErrorHandler {
         log.warn("404 {}", e.getMessage(), e);
         return new ErrorResponse("Object not available 400 ", e.getMessage());
     }
-}
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handlerConcurrentUpdate(final OptimisticLockingFailureException e) {
+        log.warn("409 {}", e.getMessage(), e);
+        return new ErrorResponse("Concurrent update 409", "Object was changed by another request");
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.existence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+@Component
+@Slf4j
+public class ExistenceService {
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Ids users;
+    private final Ids items;
+
+    @Autowired
+    public ExistenceService(UserRepository userRepository,
+                            ItemRepository itemRepository,
+                            JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.existence.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        users = new Ids("user", userRepository::existsById, meterRegistry);
+        items = new Ids("item", itemRepository::existsById, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query("select id from users", resultSet -> {
+            users.bitmap.add(resultSet.getLong(1));
+        });
+        jdbcTemplate.query("select id from items", resultSet -> {
+            items.bitmap.add(resultSet.getLong(1));
+        });
+        log.info("Existence bitmaps loaded: {} users, {} items in {} ms", users.bitmap.cardinality(),
+                items.bitmap.cardinality(), System.currentTimeMillis() - started);
+    }
+
+    public boolean userExists(long userId) {
+        return users.exists(userId);
+    }
+
+    public void requireUser(long userId, String message) {
+        if (!users.exists(userId)) throw new ObjectNotFoundException(message);
+    }
+
+    public boolean itemExists(long itemId) {
+        return items.exists(itemId);
+    }
+
+    public void requireItem(long itemId, String message) {
+        if (!items.exists(itemId)) throw new ObjectNotFoundException(message);
+    }
+
+    public void userCreated(long userId) {
+        added(users, userId);
+    }
+
+    public void userDeleted(long userId) {
+        if (!enabled) return;
+        users.deleting(userId);
+        Transactions.afterCompletion(() -> {
+            users.removed(userId);
+            users.deleted(userId);
+        }, () -> users.deleted(userId));
+    }
+
+    public void itemCreated(long itemId) {
+        added(items, itemId);
+    }
+
+    private void added(Ids ids, long id) {
+        if (enabled) Transactions.afterCommit(() -> ids.bitmap.add(id));
+    }
+
+    private final class Ids {
+        private final IdBitmap bitmap = new IdBitmap();
+        private final Set<Long> deleting = new HashSet<>();
+        private long removals;
+        private final LongPredicate fallback;
+        private final Counter hits;
+        private final Counter fallbacks;
+        private final Counter missing;
+
+        private Ids(String entity, LongPredicate fallback, MeterRegistry meterRegistry) {
+            this.fallback = fallback;
+            hits = counter(meterRegistry, entity, "hit");
+            fallbacks = counter(meterRegistry, entity, "fallback");
+            missing = counter(meterRegistry, entity, "missing");
+        }
+
+        private boolean exists(long id) {
+            if (!enabled) return fallback.test(id);
+            if (bitmap.contains(id)) {
+                hits.increment();
+                return true;
+            }
+            long seenRemovals = removals();
+            if (fallback.test(id)) {
+                fallbacks.increment();
+                remember(id, seenRemovals);
+                return true;
+            }
+            missing.increment();
+            return false;
+        }
+
+        private synchronized long removals() {
+            return removals;
+        }
+
+        private synchronized void remember(long id, long seenRemovals) {
+            if (seenRemovals == removals && !deleting.contains(id)) bitmap.add(id);
+        }
+
+        private synchronized void deleting(long id) {
+            deleting.add(id);
+        }
+
+        private synchronized void deleted(long id) {
+            deleting.remove(id);
+        }
+
+        private synchronized void removed(long id) {
+            bitmap.remove(id);
+            removals++;
+        }
+
+        private Counter counter(MeterRegistry meterRegistry, String entity, String result) {
+            return Counter.builder("existence.checks")
+                    .description("Validation-only existence checks by where they were answered")
+                    .tag("entity", entity)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.existence;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class IdBitmap {
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    private static final int PAGE_WORDS = 1 << (PAGE_BITS - 6);
+
+    private final ConcurrentMap<Long, AtomicLongArray> pages = new ConcurrentHashMap<>();
+
+    boolean contains(long id) {
+        AtomicLongArray page = pages.get(id >>> PAGE_BITS);
+        return page != null && (page.get(word(id)) & bit(id)) != 0;
+    }
+
+    void add(long id) {
+        long bit = bit(id);
+        pages.computeIfAbsent(id >>> PAGE_BITS, key -> new AtomicLongArray(PAGE_WORDS))
+                .getAndUpdate(word(id), word -> word | bit);
+    }
+
+    void remove(long id) {
+        AtomicLongArray page = pages.get(id >>> PAGE_BITS);
+        if (page == null) return;
+        long bit = bit(id);
+        page.getAndUpdate(word(id), word -> word & ~bit);
+    }
+
+    long cardinality() {
+        long count = 0;
+        for (AtomicLongArray page : pages.values()) {
+            for (int i = 0; i < page.length(); i++) {
+                count += Long.bitCount(page.get(i));
+            }
+        }
+        return count;
+    }
+
+    int pageCount() {
+        return pages.size();
+    }
+
+    private static int word(long id) {
+        return (int) (id & PAGE_MASK) >>> 6;
+    }
+
+    private static long bit(long id) {
+        return 1L << (id & 63);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+abstract class ExportWriter {
+    protected final List<String> columns;
+
+    private ExportWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    static ExportWriter of(ExportFormat format, List<String> columns, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        if (format == ExportFormat.JSON) return new Json(columns, objectMapper.getFactory().createGenerator(out));
+        return new Csv(columns, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    abstract void begin() throws IOException;
+
+    abstract void row(Object[] values) throws IOException;
+
+    abstract void end() throws IOException;
+
+    private static final class Csv extends ExportWriter {
+        private final Writer writer;
+
+        private Csv(List<String> columns, Writer writer) {
+            super(columns);
+            this.writer = writer;
+        }
+
+        @Override
+        void begin() throws IOException {
+            line(columns.toArray());
+        }
+
+        @Override
+        void row(Object[] values) throws IOException {
+            line(values);
+        }
+
+        @Override
+        void end() throws IOException {
+            writer.flush();
+        }
+
+        private void line(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                if (values[i] != null) writer.write(escape(values[i].toString()));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) return value;
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class Json extends ExportWriter {
+        private final JsonGenerator generator;
+
+        private Json(List<String> columns, JsonGenerator generator) {
+            super(columns);
+            this.generator = generator;
+        }
+
+        @Override
+        void begin() throws IOException {
+            generator.writeStartArray();
+        }
+
+        @Override
+        void row(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        void end() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.existence.ExistenceService;
+
+import java.util.List;
+
+@Component
+public class OwnerExporter {
+    private static final String ITEMS = "select i.id, i.name, i.description, i.is_available, i.request_id " +
+            "from items i " +
+            "where i.owner_id = ? " +
+            "order by i.id";
+    private static final String BOOKINGS = "select b.id, b.item_id, i.name, b.booker_id, b.start_time, " +
+            "b.end_time, b.status " +
+            "from bookings b " +
+            "join items i on i.id = b.item_id " +
+            "where i.owner_id = ? " +
+            "order by b.id";
+    private static final List<String> ITEM_COLUMNS = List.of("id", "name", "description", "available", "requestId");
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "itemId", "itemName", "bookerId", "start",
+            "end", "status");
+
+    private final ExistenceService existence;
+    private final ExportStreamer streamer;
+    private final Counter itemRows;
+    private final Counter bookingRows;
+
+    @Autowired
+    public OwnerExporter(ExistenceService existence,
+                         ExportStreamer streamer,
+                         MeterRegistry meterRegistry) {
+        this.existence = existence;
+        this.streamer = streamer;
+        itemRows = meterRegistry.counter("export.rows", "type", "items");
+        bookingRows = meterRegistry.counter("export.rows", "type", "bookings");
+    }
+
+    public StreamingResponseBody exportItems(long ownerId, ExportFormat format) {
+        checkOwner(ownerId);
+        return out -> streamer.stream(ITEMS, ITEM_COLUMNS, format, out, itemRows, ownerId);
+    }
+
+    public StreamingResponseBody exportBookings(long ownerId, ExportFormat format) {
+        checkOwner(ownerId);
+        return out -> streamer.stream(BOOKINGS, BOOKING_COLUMNS, format, out, bookingRows, ownerId);
+    }
+
+    private void checkOwner(long ownerId) {
+        existence.requireUser(ownerId, "User not found");
+    }
+}
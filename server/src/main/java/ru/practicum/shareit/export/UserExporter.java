@@ -0,0 +1,30 @@
+package ru.practicum.shareit.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@Component
+public class UserExporter {
+    private static final String USERS = "select u.id, u.name, u.email " +
+            "from users u " +
+            "order by u.id";
+    private static final List<String> USER_COLUMNS = List.of("id", "name", "email");
+
+    private final ExportStreamer streamer;
+    private final Counter userRows;
+
+    @Autowired
+    public UserExporter(ExportStreamer streamer, MeterRegistry meterRegistry) {
+        this.streamer = streamer;
+        userRows = meterRegistry.counter("export.rows", "type", "users");
+    }
+
+    public StreamingResponseBody streamUsers() {
+        return out -> streamer.stream(USERS, USER_COLUMNS, ExportFormat.JSON, out, userRows);
+    }
+}
@@ -3,12 +3,29 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.OwnerExporter;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,7 +33,12 @@ import java.util.List;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemController {
 
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String NDJSON = "application/x-ndjson";
+
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
+    private final OwnerExporter ownerExporter;
 
     @GetMapping
     public List<ItemDtoBooking> findAll(@RequestHeader("X-Sharer-User-Id") long id,
@@ -26,16 +48,46 @@ public class ItemController {
         return itemService.findAll(id, p);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestParam(defaultValue = "csv", required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName("items")).build().toString())
+                .body(ownerExporter.exportItems(userId, exportFormat));
+    }
+
     @GetMapping("/{itemId}")
     public ItemDtoBooking findItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
         return itemService.findItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from == null ? LocalDate.now() : from;
+        return itemService.getAvailability(itemId, start, to == null ? start.plusDays(30) : to);
+    }
+
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto) {
         return itemService.create(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        itemImporter.importItems(userId, request.getReader(), response.getWriter());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId, @RequestBody ItemDto itemDto) {
         return itemService.update(userId, itemId, itemDto);
@@ -43,12 +95,35 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(defaultValue = "false", required = false) boolean fuzzy,
                                     @RequestParam(defaultValue = "0", required = false) int from,
                                     @RequestParam(defaultValue = "20", required = false) int size) {
         PageRequest p = PageRequest.of(from / size, size);
+        if (fuzzy) return itemService.fuzzySearchItem(text, p);
         return itemService.searchItem(text, p);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10", required = false) int size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "20", required = false) int size) {
+        CommentPageDto page = itemService.getComments(itemId, after == null ? null : KeysetCursor.decode(after), size);
+        List<CommentDto> comments = page.getComments();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotal()));
+        if (!comments.isEmpty() && comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(comments);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long itemId,
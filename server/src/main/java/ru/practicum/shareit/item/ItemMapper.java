@@ -40,7 +40,9 @@ public class ItemMapper {
                 item.getAvailable(),
                 null,
                 null,
-                new ArrayList<>()
+                new ArrayList<>(),
+                null,
+                null
         );
     }
 }
@@ -8,6 +8,9 @@ import lombok.*;
 @NoArgsConstructor
 @EqualsAndHashCode
 public class ItemDto {
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final int MAX_DESCRIPTION_LENGTH = 64;
+
     private Long id;
     private String name;
     private String description;
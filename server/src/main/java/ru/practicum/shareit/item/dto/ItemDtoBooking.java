@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
@@ -18,4 +19,7 @@ public class ItemDtoBooking {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long bookingCount;
 }
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+import org.hibernate.Hibernate;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Entity
+@Table(name = "ITEM_STATS")
+public class ItemStats {
+    @Id
+    private Long itemId;
+    private long commentCount;
+    private long bookingCount;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+    private LocalDateTime validUntil;
+    private LocalDateTime refreshedAt;
+    private boolean dirty;
+    @Version
+    private Long version;
+
+    public ItemStats(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isFresh(LocalDateTime now) {
+        return !dirty && (validUntil == null || validUntil.isAfter(now));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ItemStats stats = (ItemStats) o;
+        return itemId != null && Objects.equals(itemId, stats.itemId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
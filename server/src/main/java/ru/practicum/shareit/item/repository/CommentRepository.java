@@ -1,16 +1,47 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     @Query("select comment from Comment comment " +
             "where comment.item.id in :ids")
     List<Comment> findAllComments(@Param("ids") List<Long> ids);
+
+    @Query(value = "select ranked.id as id, ranked.text as text, ranked.item_id as itemId, " +
+            "u.name as authorName, ranked.created as created " +
+            "from (select c.*, " +
+            "row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c " +
+            "where c.item_id in (:ids)) as ranked " +
+            "join users u on u.id = ranked.author_id " +
+            "where ranked.rn <= :limit " +
+            "order by ranked.item_id, ranked.rn",
+            nativeQuery = true)
+    List<LatestComment> findLatestComments(@Param("ids") List<Long> ids, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdOrderByCreatedDescIdDesc(long itemId, Pageable p);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select comment from Comment comment " +
+            "where comment.item.id = :itemId " +
+            "and (comment.created < :created or (comment.created = :created and comment.id < :id)) " +
+            "order by comment.created desc, comment.id desc")
+    List<Comment> findPageAfter(@Param("itemId") long itemId,
+                                @Param("created") LocalDateTime created,
+                                @Param("id") long id,
+                                Pageable p);
+
+    long countByItemId(long itemId);
 }
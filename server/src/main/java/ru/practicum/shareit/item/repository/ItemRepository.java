@@ -1,29 +1,37 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
+    @EntityGraph(attributePaths = {"owner", "itemRequest", "itemRequest.requestor"})
+    Optional<Item> findWithOwnerAndRequestById(long id);
+
     List<Item> findAllByOwnerIdOrderByIdAsc(long userId, Pageable p);
 
-    @Query("select item from Item item " +
-            "where item.available = true " +
-            "and (lower(item.name) like %?1% " +
-            "or lower(item.description) like %?1%)")
-    List<Item> searchByText(String text, Pageable p);
+    @EntityGraph(attributePaths = {"itemRequest"})
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(long id, Pageable p);
+
+    @Query("select item.id from Item item where item.id > :id order by item.id")
+    List<Long> findIdsAfter(@Param("id") long id, Pageable p);
 
-    @Query("select item from Item item " +
-            "where item.itemRequest.id in :ids")
-    List<Item> searchByRequestsId(@Param("ids") List<Long> ids);
+    @Query("select item.name from Item item " +
+            "where item.available = true and lower(item.name) like concat(:prefix, '%') " +
+            "group by item.name order by count(item) desc, item.name")
+    List<String> suggestNames(@Param("prefix") String prefix, Pageable p);
 
-    @Query("select item from Item item " +
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(item.id, item.name, item.description, " +
+            "item.available, item.itemRequest.id) from Item item " +
             "where item.itemRequest.id = ?1")
-    List<Item> findByItemRequestId(long requestId);
+    List<ItemDto> findByItemRequestId(long requestId);
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.repository;
+
+public enum ItemSearchMode {
+    SUBSTRING,
+    FULLTEXT
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+    List<ItemDto> search(String text, Pageable p);
+
+    List<ItemDto> fuzzySearch(String text, Pageable p);
+}
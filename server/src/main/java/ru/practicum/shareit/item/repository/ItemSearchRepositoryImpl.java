@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.TrigramScorer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String SELECT_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(item.id, item.name, " +
+            "item.description, item.available, item.itemRequest.id) from Item item ";
+    private static final String SELECT_DTO_COLUMNS = "select i.id, i.name, i.description, i.is_available, i.request_id ";
+    private static final String SUBSTRING_QUERY = SELECT_DTO +
+            "where item.available = true " +
+            "and (lower(item.name) like :text " +
+            "or lower(item.description) like :text)";
+    private static final String FULL_TEXT_QUERY = SELECT_DTO_COLUMNS + "from items i, to_tsquery('simple', :query) query " +
+            "where i.is_available = true and i.search_vector @@ query " +
+            "order by ts_rank(i.search_vector, query) desc, i.id";
+    private static final String FUZZY_THRESHOLD_QUERY =
+            "select set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+    private static final String FUZZY_QUERY = SELECT_DTO_COLUMNS + "from items i " +
+            "where i.is_available = true and (:text <% lower(i.name) or :text <% lower(i.description)) " +
+            "order by greatest(word_similarity(:text, lower(i.name)), " +
+            "word_similarity(:text, lower(i.description))) desc, i.id";
+
+    private final Map<Integer, String> fallbackQueries = new ConcurrentHashMap<>();
+    private final EntityManager em;
+    private final ItemSearchMode mode;
+    private final double fuzzyThreshold;
+    private final boolean postgres;
+
+    @Autowired
+    public ItemSearchRepositoryImpl(EntityManager em, DataSource dataSource,
+                                    @Value("${shareit.item.search.mode:substring}") ItemSearchMode mode,
+                                    @Value("${shareit.item.search.fuzzy.threshold:0.6}") double fuzzyThreshold)
+            throws MetaDataAccessException {
+        this(em, mode, fuzzyThreshold, DatabaseDriver.fromProductName(JdbcUtils.extractDatabaseMetaData(dataSource,
+                DatabaseMetaData::getDatabaseProductName)) == DatabaseDriver.POSTGRESQL);
+    }
+
+    ItemSearchRepositoryImpl(EntityManager em, ItemSearchMode mode, double fuzzyThreshold, boolean postgres) {
+        this.em = em;
+        this.mode = mode;
+        this.fuzzyThreshold = fuzzyThreshold;
+        this.postgres = postgres;
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Pageable p) {
+        if (mode == ItemSearchMode.SUBSTRING) {
+            return page(em.createQuery(SUBSTRING_QUERY, ItemDto.class)
+                    .setParameter("text", "%" + text.toLowerCase() + "%"), p);
+        }
+        List<String> tokens = tokens(text);
+        if (tokens.isEmpty()) return new ArrayList<>();
+        if (postgres) {
+            return pageOfRows(em.createNativeQuery(FULL_TEXT_QUERY)
+                    .setParameter("query", toTsQuery(tokens)), p);
+        }
+        Query query = em.createQuery(fallbackQueries.computeIfAbsent(tokens.size(), this::compileFallback),
+                ItemDto.class);
+        for (int i = 0; i < tokens.size(); i++) {
+            query.setParameter("t" + i, "%" + tokens.get(i) + "%");
+        }
+        return page(query, p);
+    }
+
+    @Override
+    public List<ItemDto> fuzzySearch(String text, Pageable p) {
+        String query = String.join(" ", tokens(text));
+        if (query.isEmpty()) return new ArrayList<>();
+        if (postgres) {
+            em.createNativeQuery(FUZZY_THRESHOLD_QUERY)
+                    .setParameter("threshold", String.valueOf(fuzzyThreshold))
+                    .getSingleResult();
+            return pageOfRows(em.createNativeQuery(FUZZY_QUERY).setParameter("text", query), p);
+        }
+        return em.createQuery(SELECT_DTO + "where item.available = true", ItemDto.class)
+                .getResultStream()
+                .map(item -> new ScoredItem(item, Math.max(TrigramScorer.wordSimilarity(query, item.getName()),
+                        TrigramScorer.wordSimilarity(query, item.getDescription()))))
+                .filter(scored -> scored.score >= fuzzyThreshold)
+                .sorted(Comparator.comparingDouble((ScoredItem scored) -> scored.score).reversed()
+                        .thenComparing(scored -> scored.item.getId()))
+                .skip(p.getOffset())
+                .limit(p.getPageSize())
+                .map(scored -> scored.item)
+                .collect(Collectors.toList());
+    }
+
+    static List<String> tokens(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    static String toTsQuery(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private String compileFallback(int tokens) {
+        List<String> conditions = new ArrayList<>();
+        List<String> ranks = new ArrayList<>();
+        for (int i = 0; i < tokens; i++) {
+            conditions.add("(lower(item.name) like :t" + i + " or lower(item.description) like :t" + i + ")");
+            ranks.add("case when lower(item.name) like :t" + i + " then 1 else 0 end");
+        }
+        return SELECT_DTO + "where item.available = true and "
+                + String.join(" and ", conditions)
+                + " order by " + String.join(" + ", ranks) + " desc, item.id";
+    }
+
+    @RequiredArgsConstructor
+    private static class ScoredItem {
+        private final ItemDto item;
+        private final double score;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ItemDto> page(Query query, Pageable p) {
+        return query.setFirstResult((int) p.getOffset())
+                .setMaxResults(p.getPageSize())
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ItemDto> pageOfRows(Query query, Pageable p) {
+        return ((List<Object[]>) query.setFirstResult((int) p.getOffset())
+                .setMaxResults(p.getPageSize())
+                .getResultList()).stream()
+                .map(row -> new ItemDto(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        (Boolean) row[3], row[4] == null ? null : ((Number) row[4]).longValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    @Query("select stats from ItemStats stats " +
+            "where stats.itemId in :ids " +
+            "and stats.dirty = false " +
+            "and (stats.validUntil is null or stats.validUntil > :now)")
+    List<ItemStats> findFresh(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update ItemStats stats set stats.dirty = true, stats.version = stats.version + 1 " +
+            "where stats.itemId in :ids")
+    int markDirty(@Param("ids") Collection<Long> ids);
+
+    @Query("select comment.item.id as itemId, count(comment) as total from Comment comment " +
+            "where comment.item.id in :ids " +
+            "group by comment.item.id")
+    List<ItemCount> countComments(@Param("ids") Collection<Long> ids);
+
+    @Query("select booking.item.id as itemId, count(booking) as total from Booking booking " +
+            "where booking.item.id in :ids " +
+            "and booking.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "group by booking.item.id")
+    List<ItemCount> countApprovedBookings(@Param("ids") Collection<Long> ids);
+}
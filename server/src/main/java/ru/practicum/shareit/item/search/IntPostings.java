@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class IntPostings {
+    private int[] ordinals = new int[4];
+    private int size;
+
+    void add(int ordinal) {
+        if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size + (size >> 1));
+        ordinals[size++] = ordinal;
+    }
+
+    boolean contains(int ordinal) {
+        return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+    }
+
+    int get(int index) {
+        return ordinals[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private LongIntHashMap ordinals;
+    private LongIntHashMap trigrams;
+    private IntPostings[] postings;
+    private long[] itemIds;
+    private long[] requestIds;
+    private String[] names;
+    private String[] descriptions;
+    private BitSet live;
+    private int documents;
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item.search.index.enabled:false}") boolean enabled,
+                           @Value("${shareit.item.search.index.chunk-size:5000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        clear();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) return;
+        long started = System.currentTimeMillis();
+        long lastId = 0;
+        int loaded = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+            lock.writeLock().lock();
+            try {
+                for (Item item : chunk) {
+                    if (ordinals.get(item.getId()) == LongIntHashMap.MISSING) add(item.getId(), item.getName(),
+                            item.getDescription(), requestId(item));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += chunk.size();
+            if (!chunk.isEmpty()) lastId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+        ready = true;
+        log.info("Item search index built: {} items in {} ms", loaded, System.currentTimeMillis() - started);
+    }
+
+    public void index(Item item) {
+        if (!enabled) return;
+        long itemId = item.getId();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        String name = item.getName();
+        String description = item.getDescription();
+        long requestId = requestId(item);
+        Transactions.afterCommit(() -> apply(itemId, available, name, description, requestId));
+    }
+
+    public List<ItemDto> search(String text, long offset, int limit) {
+        String query = text.toLowerCase();
+        List<ItemDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long skipped = 0;
+            if (query.length() < GRAM) {
+                for (int ordinal = live.nextSetBit(0); ordinal >= 0 && result.size() < limit;
+                     ordinal = live.nextSetBit(ordinal + 1)) {
+                    if (matches(ordinal, query) && skipped++ >= offset) result.add(toItemDto(ordinal));
+                }
+                return result;
+            }
+            IntPostings[] lists = postingsOf(query);
+            if (lists == null) return result;
+            IntPostings shortest = lists[0];
+            for (int i = 0; i < shortest.size() && result.size() < limit; i++) {
+                int ordinal = shortest.get(i);
+                if (live.get(ordinal) && containsAll(lists, ordinal) && matches(ordinal, query)
+                        && skipped++ >= offset) {
+                    result.add(toItemDto(ordinal));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(long itemId, boolean available, String name, String description, long requestId) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.get(itemId);
+            if (ordinal >= 0) live.clear(ordinal);
+            if (available) {
+                add(itemId, name, description, requestId);
+            } else {
+                ordinals.put(itemId, -1);
+            }
+            if (ready && documents - live.cardinality() > Math.max(INITIAL_CAPACITY, live.cardinality())) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(long itemId, String name, String description, long requestId) {
+        int ordinal = documents++;
+        if (ordinal == itemIds.length) {
+            int capacity = ordinal * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            requestIds = Arrays.copyOf(requestIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        itemIds[ordinal] = itemId;
+        requestIds[ordinal] = requestId;
+        names[ordinal] = name;
+        descriptions[ordinal] = description;
+        live.set(ordinal);
+        ordinals.put(itemId, ordinal);
+        for (long trigram : distinctTrigrams(name, description)) {
+            int slot = trigrams.get(trigram);
+            if (slot == LongIntHashMap.MISSING) {
+                slot = trigrams.size();
+                if (slot == postings.length) postings = Arrays.copyOf(postings, slot * 2);
+                postings[slot] = new IntPostings();
+                trigrams.put(trigram, slot);
+            }
+            postings[slot].add(ordinal);
+        }
+    }
+
+    private void compact() {
+        long[] oldItemIds = itemIds;
+        long[] oldRequestIds = requestIds;
+        String[] oldNames = names;
+        String[] oldDescriptions = descriptions;
+        BitSet oldLive = live;
+        int oldDocuments = documents;
+        clear();
+        for (int ordinal = oldLive.nextSetBit(0); ordinal >= 0; ordinal = oldLive.nextSetBit(ordinal + 1)) {
+            add(oldItemIds[ordinal], oldNames[ordinal], oldDescriptions[ordinal], oldRequestIds[ordinal]);
+        }
+        log.debug("Item search index compacted from {} to {} documents", oldDocuments, documents);
+    }
+
+    private void clear() {
+        ordinals = new LongIntHashMap(INITIAL_CAPACITY);
+        trigrams = new LongIntHashMap(INITIAL_CAPACITY);
+        postings = new IntPostings[INITIAL_CAPACITY];
+        itemIds = new long[INITIAL_CAPACITY];
+        requestIds = new long[INITIAL_CAPACITY];
+        names = new String[INITIAL_CAPACITY];
+        descriptions = new String[INITIAL_CAPACITY];
+        live = new BitSet();
+        documents = 0;
+    }
+
+    private IntPostings[] postingsOf(String query) {
+        long[] queryTrigrams = distinctTrigrams(query, null);
+        IntPostings[] lists = new IntPostings[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            int slot = trigrams.get(queryTrigrams[i]);
+            if (slot == LongIntHashMap.MISSING) return null;
+            lists[i] = postings[slot];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        return lists;
+    }
+
+    private boolean containsAll(IntPostings[] lists, int ordinal) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(ordinal)) return false;
+        }
+        return true;
+    }
+
+    private boolean matches(int ordinal, String query) {
+        return contains(names[ordinal], query) || contains(descriptions[ordinal], query);
+    }
+
+    private ItemDto toItemDto(int ordinal) {
+        return new ItemDto(itemIds[ordinal], names[ordinal], descriptions[ordinal], true,
+                requestIds[ordinal] == 0 ? null : requestIds[ordinal]);
+    }
+
+    private static boolean contains(String field, String query) {
+        return field != null && field.toLowerCase().contains(query);
+    }
+
+    private static long[] distinctTrigrams(String first, String second) {
+        String[] texts = {first == null ? "" : first.toLowerCase(), second == null ? "" : second.toLowerCase()};
+        long[] result = new long[texts[0].length() + texts[1].length()];
+        int size = 0;
+        for (String text : texts) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                result[size++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            }
+        }
+        Arrays.sort(result, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) result[distinct++] = result[i];
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static long requestId(Item item) {
+        return item.getItemRequest() == null ? 0 : item.getItemRequest().getId();
+    }
+}
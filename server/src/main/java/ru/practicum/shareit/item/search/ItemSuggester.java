@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSuggester {
+    private final ItemRepository itemRepository;
+    private final int topK;
+    private final int chunkSize;
+    private final NameTrie trie;
+    private final Map<Long, String> indexedNames = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSuggester(ItemRepository itemRepository,
+                         @Value("${shareit.item.suggest.top-k:10}") int topK,
+                         @Value("${shareit.item.search.index.chunk-size:5000}") int chunkSize,
+                         @Value("${shareit.item.suggest.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.chunkSize = chunkSize;
+        this.trie = new NameTrie(topK);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) return;
+        long started = System.currentTimeMillis();
+        long lastId = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+            lock.writeLock().lock();
+            try {
+                for (Item item : chunk) {
+                    if (!indexedNames.containsKey(item.getId())) {
+                        trie.load(item.getName());
+                        indexedNames.put(item.getId(), item.getName());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!chunk.isEmpty()) lastId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+        lock.writeLock().lock();
+        try {
+            trie.rank();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item name suggestions built in {} ms", System.currentTimeMillis() - started);
+    }
+
+    public void index(Item item) {
+        if (!enabled) return;
+        long itemId = item.getId();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        String name = item.getName();
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                apply(itemId, available, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        Transactions.afterCommit(update);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(long itemId, boolean available, String name) {
+        String previous = indexedNames.get(itemId);
+        if (previous != null) trie.remove(previous);
+        if (available) {
+            trie.add(name);
+            indexedNames.put(itemId, name);
+        } else if (ready) {
+            indexedNames.remove(itemId);
+        } else {
+            indexedNames.put(itemId, null);
+        }
+    }
+}
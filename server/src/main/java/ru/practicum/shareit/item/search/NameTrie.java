@@ -0,0 +1,179 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class NameTrie {
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> entry.count).reversed()
+            .thenComparing(entry -> entry.key);
+
+    private final int topK;
+    private final Node root = new Node("");
+
+    NameTrie(int topK) {
+        this.topK = topK;
+    }
+
+    void add(String name) {
+        List<Node> path = count(name);
+        if (path != null) refresh(path);
+    }
+
+    void load(String name) {
+        count(name);
+    }
+
+    void rank() {
+        rank(root);
+    }
+
+    void remove(String name) {
+        String key = key(name);
+        List<Node> path = pathTo(key, false);
+        if (path == null) return;
+        Node node = path.get(path.size() - 1);
+        if (node.terminal == null) return;
+        if (--node.terminal.count == 0) {
+            node.terminal = null;
+            prune(path);
+        }
+        refresh(path);
+    }
+
+    List<String> suggest(String prefix, int limit) {
+        String key = key(prefix);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.children.get(key.charAt(matched));
+            if (child == null) return List.of();
+            int common = commonPrefix(child.label, key, matched);
+            if (common < child.label.length() && matched + common < key.length()) return List.of();
+            matched += common;
+            node = child;
+        }
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < node.top.length && i < limit; i++) {
+            names.add(node.top[i].display);
+        }
+        return names;
+    }
+
+    static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    private List<Node> count(String name) {
+        String key = key(name);
+        if (key.isEmpty()) return null;
+        List<Node> path = pathTo(key, true);
+        Node node = path.get(path.size() - 1);
+        if (node.terminal == null) node.terminal = new Entry(key, name.trim());
+        node.terminal.count++;
+        return path;
+    }
+
+    private void rank(Node node) {
+        node.children.values().forEach(this::rank);
+        refresh(List.of(node));
+    }
+
+    private List<Node> pathTo(String key, boolean create) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            char next = key.charAt(matched);
+            Node child = node.children.get(next);
+            if (child == null) {
+                if (!create) return null;
+                child = new Node(key.substring(matched));
+                node.children.put(next, child);
+            }
+            int common = commonPrefix(child.label, key, matched);
+            if (common < child.label.length()) {
+                if (!create) return null;
+                child = split(node, child, common);
+            }
+            matched += common;
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        middle.top = child.top;
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.terminal != null) return;
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                path.remove(i);
+            } else if (node.children.size() == 1) {
+                Node child = node.children.values().iterator().next();
+                child.label = node.label + child.label;
+                parent.children.put(child.label.charAt(0), child);
+                path.set(i, child);
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>();
+            if (node.terminal != null) candidates.add(node.terminal);
+            node.children.values().forEach(child -> candidates.addAll(List.of(child.top)));
+            candidates.sort(RANKING);
+            node.top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(new Entry[0]);
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int common = 0;
+        while (common < label.length() && offset + common < key.length()
+                && label.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>();
+        private Entry terminal;
+        private Entry[] top = new Entry[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String display;
+        private int count;
+
+        private Entry(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+}
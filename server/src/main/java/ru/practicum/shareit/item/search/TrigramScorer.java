@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public final class TrigramScorer {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TrigramScorer() {
+    }
+
+    public static double wordSimilarity(String query, String text) {
+        List<String> queryWords = words(query);
+        Set<String> queryTrigrams = trigrams(queryWords);
+        if (queryTrigrams.isEmpty() || text == null) return 0;
+        List<String> textWords = words(text);
+        int window = Math.min(queryWords.size(), textWords.size());
+        double best = 0;
+        for (int i = 0; i + window <= textWords.size() && window > 0; i++) {
+            Set<String> extent = trigrams(textWords.subList(i, i + window));
+            long shared = queryTrigrams.stream().filter(extent::contains).count();
+            best = Math.max(best, (double) shared / queryTrigrams.size());
+        }
+        return best;
+    }
+
+    static Set<String> trigrams(List<String> words) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    static List<String> words(String text) {
+        if (text == null) return List.of();
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase()))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
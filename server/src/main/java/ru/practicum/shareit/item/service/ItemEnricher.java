@@ -0,0 +1,226 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemEnricher {
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemStatsRepository statsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final int latestComments;
+    private final boolean statsEnabled;
+    private final Timer bookingsTimer;
+    private final Timer commentsTimer;
+    private final Timer totalTimer;
+    private final Counter statsHits;
+    private final Counter statsMisses;
+
+    @Autowired
+    public ItemEnricher(BookingRepository bookingRepository,
+                        CommentRepository commentRepository,
+                        ItemStatsRepository statsRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.item.enrichment.threads:4}") int threads,
+                        @Value("${shareit.item.enrichment.queue-capacity:100}") int queueCapacity,
+                        @Value("${shareit.item.view.latest-comments:0}") int latestComments,
+                        @Value("${shareit.item.stats.enabled:false}") boolean statsEnabled,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.statsRepository = statsRepository;
+        this.latestComments = latestComments;
+        this.statsEnabled = statsEnabled;
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        int poolThreads = Math.max(1, Math.min(threads, maxPoolSize / 2));
+        if (poolThreads < threads) {
+            log.warn("Item enrichment limited to {} threads by a connection pool of {}", poolThreads, maxPoolSize);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolThreads, poolThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "item-enrichment-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        bookingsTimer = stageTimer(meterRegistry, "bookings");
+        commentsTimer = stageTimer(meterRegistry, "comments");
+        totalTimer = stageTimer(meterRegistry, "total");
+        statsHits = statsCounter(meterRegistry, "hit");
+        statsMisses = statsCounter(meterRegistry, "miss");
+    }
+
+    public List<ItemDtoBooking> enrich(long userId, List<Item> items) {
+        if (items.isEmpty()) return new ArrayList<>();
+        return totalTimer.record(() -> {
+            List<Long> ids = items.stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            List<Long> ownedIds = items.stream()
+                    .filter(item -> item.getOwner() != null && item.getOwner().getId() == userId)
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            Supplier<Counts> countsStage = () -> bookingsTimer.record(() -> readOnlyTransaction.execute(status ->
+                    loadCounts(ids, ownedIds, now, userId)));
+            CompletableFuture<Counts> counts;
+            if (!statsEnabled && ownedIds.isEmpty() && latestComments == 0) {
+                counts = CompletableFuture.completedFuture(new Counts());
+            } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                counts = CompletableFuture.completedFuture(countsStage.get());
+            } else counts = CompletableFuture.supplyAsync(countsStage, executor);
+            Map<Long, ItemDtoBooking> itemsMap = items.stream()
+                    .map(ItemMapper::toItemDtoBooking)
+                    .collect(Collectors.toMap(ItemDtoBooking::getId, item -> item, (a, b) -> b, LinkedHashMap::new));
+            commentsTimer.record(() -> readOnlyTransaction.executeWithoutResult(status ->
+                    loadComments(ids, itemsMap)));
+            Counts loaded = join(counts);
+            loaded.bookings.forEach(booking -> {
+                ItemDtoBooking itemDto = itemsMap.get(booking.getItemId());
+                if (booking.getStart().isBefore(now)) {
+                    itemDto.setLastBooking(booking);
+                } else itemDto.setNextBooking(booking);
+            });
+            loaded.commentCounts.forEach((itemId, total) -> itemsMap.get(itemId).setCommentCount(total));
+            ownedIds.forEach(itemId -> itemsMap.get(itemId)
+                    .setBookingCount(loaded.bookingCounts.getOrDefault(itemId, 0L)));
+            return new ArrayList<>(itemsMap.values());
+        });
+    }
+
+    private Counts loadCounts(List<Long> ids, List<Long> ownedIds, LocalDateTime now, long userId) {
+        Counts counts = new Counts();
+        Set<Long> fresh = new HashSet<>();
+        if (statsEnabled) {
+            Set<Long> owned = new HashSet<>(ownedIds);
+            for (ItemStats stats : statsRepository.findFresh(ids, now)) {
+                fresh.add(stats.getItemId());
+                counts.commentCounts.put(stats.getItemId(), stats.getCommentCount());
+                if (!owned.contains(stats.getItemId())) continue;
+                counts.bookingCounts.put(stats.getItemId(), stats.getBookingCount());
+                if (stats.getLastBooking() != null) {
+                    counts.bookings.add(BookingMapper.toBookingDto(stats.getLastBooking()));
+                }
+                if (stats.getNextBooking() != null) {
+                    counts.bookings.add(BookingMapper.toBookingDto(stats.getNextBooking()));
+                }
+            }
+            statsHits.increment(fresh.size());
+            statsMisses.increment(ids.size() - fresh.size());
+        }
+        List<Long> staleOwned = ownedIds.stream()
+                .filter(id -> !fresh.contains(id))
+                .collect(Collectors.toList());
+        if (!staleOwned.isEmpty()) {
+            bookingRepository.findLastAndNextBookings(staleOwned, now, userId).stream()
+                    .map(BookingMapper::toBookingDto)
+                    .forEach(counts.bookings::add);
+            statsRepository.countApprovedBookings(staleOwned)
+                    .forEach(count -> counts.bookingCounts.put(count.getItemId(), count.getTotal()));
+        }
+        List<Long> stale = ids.stream()
+                .filter(id -> !fresh.contains(id))
+                .collect(Collectors.toList());
+        if (latestComments > 0 && !stale.isEmpty()) {
+            statsRepository.countComments(stale)
+                    .forEach(count -> counts.commentCounts.put(count.getItemId(), count.getTotal()));
+        }
+        return counts;
+    }
+
+    private void loadComments(List<Long> ids, Map<Long, ItemDtoBooking> itemsMap) {
+        itemsMap.values().forEach(item -> item.setCommentCount(0L));
+        if (latestComments > 0) {
+            commentRepository.findLatestComments(ids, latestComments).forEach(comment -> {
+                ItemDtoBooking item = itemsMap.get(comment.getItemId());
+                item.getComments().add(new CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(),
+                        comment.getCreated()));
+            });
+            return;
+        }
+        commentRepository.findAllComments(ids).forEach(comment -> {
+            ItemDtoBooking item = itemsMap.get(comment.getItem().getId());
+            item.getComments().add(CommentMapper.toCommentDto(comment));
+            item.setCommentCount(item.getCommentCount() + 1);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("item.enrichment")
+                .description("Duration of loading bookings and comments for item views")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Counter statsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("item.stats.reads")
+                .description("Item views served from item stats or recomputed from bookings")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Counts {
+        private final List<BookingDto> bookings = new ArrayList<>();
+        private final Map<Long, Long> commentCounts = new HashMap<>();
+        private final Map<Long, Long> bookingCounts = new HashMap<>();
+    }
+}
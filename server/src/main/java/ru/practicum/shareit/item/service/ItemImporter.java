@@ -0,0 +1,224 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.existence.ExistenceService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.match.RequestMatcher;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemImporter {
+    private static final String INSERT_ITEM = "insert into items (name, description, is_available, owner_id, " +
+            "request_id) values (?, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ExistenceService existence;
+    private final ItemRequestRepository requestRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggester suggester;
+    private final RequestMatcher requestMatcher;
+    private final int chunkSize;
+    private final Counter created;
+    private final Counter failed;
+
+    @Autowired
+    public ItemImporter(ObjectMapper objectMapper,
+                        UserRepository userRepository,
+                        ExistenceService existence,
+                        ItemRequestRepository requestRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ItemSearchIndex searchIndex,
+                        ItemSuggester suggester,
+                        RequestMatcher requestMatcher,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.existence = existence;
+        this.requestRepository = requestRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndex = searchIndex;
+        this.suggester = suggester;
+        this.requestMatcher = requestMatcher;
+        this.chunkSize = chunkSize;
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        created = lineCounter(meterRegistry, "created");
+        failed = lineCounter(meterRegistry, "failed");
+    }
+
+    public void importItems(long userId, BufferedReader reader, Writer results) throws IOException {
+        existence.requireUser(userId, "User not found");
+        User owner = userRepository.getReferenceById(userId);
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+        long number = 0;
+        long imported = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) continue;
+            chunk.add(parse(number, line));
+            if (chunk.size() == chunkSize) {
+                imported += flush(owner, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) imported += flush(owner, chunk, results);
+        log.info("{} items imported for user {} from {} lines", imported, userId, number);
+    }
+
+    private ImportLine parse(long number, String line) {
+        ItemDto item;
+        try {
+            item = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            return ImportLine.failed(number, "Malformed item: " + e.getOriginalMessage());
+        }
+        if (item == null || isBlank(item.getName()) || isBlank(item.getDescription()) || item.getAvailable() == null)
+            return ImportLine.failed(number, "Name, description and availability are required");
+        if (item.getName().length() > ItemDto.MAX_NAME_LENGTH)
+            return ImportLine.failed(number, "Name is longer than " + ItemDto.MAX_NAME_LENGTH + " characters");
+        if (item.getDescription().length() > ItemDto.MAX_DESCRIPTION_LENGTH)
+            return ImportLine.failed(number, "Description is longer than " + ItemDto.MAX_DESCRIPTION_LENGTH
+                    + " characters");
+        return new ImportLine(number, item, null);
+    }
+
+    private int flush(User owner, List<ImportLine> chunk, Writer results) throws IOException {
+        Set<Long> requestIds = chunk.stream()
+                .filter(line -> line.item != null)
+                .map(line -> line.item.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequests = requestIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(requestRepository.findExistingIds(requestIds));
+        List<ImportLine> valid = new ArrayList<>(chunk.size());
+        for (ImportLine line : chunk) {
+            if (line.item == null) continue;
+            Long requestId = line.item.getRequestId();
+            if (requestId != null && !existingRequests.contains(requestId)) {
+                line.error = "Request " + requestId + " not found";
+            } else valid.add(line);
+        }
+        int inserted = 0;
+        if (!valid.isEmpty()) {
+            try {
+                chunkTransaction.executeWithoutResult(status -> insert(owner, valid));
+                inserted = valid.size();
+            } catch (DataAccessException e) {
+                log.warn("Item import chunk of {} items failed", valid.size(), e);
+                valid.forEach(line -> line.error = "Item not saved: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        for (ImportLine line : chunk) {
+            ItemImportResultDto result = line.error == null
+                    ? ItemImportResultDto.created(line.number, line.item.getId())
+                    : ItemImportResultDto.failed(line.number, line.error);
+            results.write(objectMapper.writeValueAsString(result));
+            results.write('\n');
+        }
+        results.flush();
+        created.increment(inserted);
+        failed.increment(chunk.size() - inserted);
+        return inserted;
+    }
+
+    private void insert(User owner, List<ImportLine> lines) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (ImportLine line : lines) {
+                    statement.setString(1, line.item.getName());
+                    statement.setString(2, line.item.getDescription());
+                    statement.setBoolean(3, line.item.getAvailable());
+                    statement.setLong(4, owner.getId());
+                    if (line.item.getRequestId() == null) {
+                        statement.setNull(5, Types.BIGINT);
+                    } else statement.setLong(5, line.item.getRequestId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (ImportLine line : lines) {
+                        if (!keys.next()) throw new IllegalStateException("Generated item id missing");
+                        line.item.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+        for (ImportLine line : lines) {
+            ItemDto dto = line.item;
+            Item item = new Item(dto.getId(), dto.getName(), dto.getDescription(), dto.getAvailable(), owner,
+                    dto.getRequestId() == null ? null : requestRepository.getReferenceById(dto.getRequestId()));
+            searchIndex.index(item);
+            suggester.index(item);
+            existence.itemCreated(item.getId());
+            requestMatcher.itemChanged(item);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Counter lineCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("item.import.lines")
+                .description("Lines processed by the bulk item import")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class ImportLine {
+        private final long number;
+        private final ItemDto item;
+        private String error;
+
+        private ImportLine(long number, ItemDto item, String error) {
+            this.number = number;
+            this.item = item;
+            this.error = error;
+        }
+
+        private static ImportLine failed(long number, String error) {
+            return new ImportLine(number, null, error);
+        }
+    }
+}
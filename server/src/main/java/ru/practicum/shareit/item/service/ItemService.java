@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
@@ -12,11 +16,19 @@ public interface ItemService {
 
     ItemDtoBooking findItem(long userId, long itemId);
 
+    ItemAvailabilityDto getAvailability(long itemId, LocalDate from, LocalDate to);
+
     List<ItemDto> searchItem(String text, Pageable p);
 
+    List<ItemDto> fuzzySearchItem(String text, Pageable p);
+
+    List<String> suggest(String prefix, int size);
+
     ItemDto create(long userId, ItemDto itemDto);
 
     ItemDto update(long userId, long itemId, ItemDto itemDto);
 
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
+
+    CommentPageDto getComments(long itemId, KeysetCursor after, int size);
 }
\ No newline at end of file
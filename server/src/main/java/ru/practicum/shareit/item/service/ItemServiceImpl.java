@@ -3,70 +3,106 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.availability.ItemCalendarCache;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.item.stats.ItemStatsUpdater;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.match.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-@Transactional(readOnly = true)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ExistenceService existence;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemCalendarCache itemCalendars;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggester suggester;
+    private final ItemEnricher itemEnricher;
+    private final ItemViewCache itemViews;
+    private final ItemStatsUpdater itemStats;
+    private final RequestMatcher requestMatcher;
 
     @Override
     public List<ItemDtoBooking> findAll(long userId, Pageable p) {
         log.info("Items sent");
-        return setAllBookingsAndComments(userId, itemRepository.findAllByOwnerIdOrderByIdAsc(userId, p));
+        return itemEnricher.enrich(userId, itemRepository.findAllByOwnerIdOrderByIdAsc(userId, p));
     }
 
     @Override
     public ItemDtoBooking findItem(long userId, long itemId) {
         log.info("Item sent");
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
-            throw new ObjectNotFoundException("Item not found");
+        return itemViews.get(itemId, userId, () -> {
+            Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+                throw new ObjectNotFoundException("Item not found");
+            });
+            return new ItemViewCache.Loaded(item.getOwner().getId(),
+                    itemEnricher.enrich(userId, Collections.singletonList(item)).get(0));
         });
-        return setAllBookingsAndComments(userId, Collections.singletonList(item)).get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new BadRequestException("End of period is before its start");
+        if (ChronoUnit.DAYS.between(from, to) > MAX_AVAILABILITY_DAYS)
+            throw new BadRequestException("Period is longer than " + MAX_AVAILABILITY_DAYS + " days");
+        existence.requireItem(itemId, "Item not found");
+        return new ItemAvailabilityDto(itemId, from, to, itemCalendars.getAvailability(itemId, from, to));
     }
 
     @Override
     @Transactional
     public ItemDto create(long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            throw new ObjectNotFoundException("User not found");
-        });
+        existence.requireUser(userId, "User not found");
+        User user = userRepository.getReferenceById(userId);
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
             itemRequest = requestRepository.findById(itemDto.getRequestId()).orElseThrow(() ->
                 new ObjectNotFoundException("Request not found"));
         }
         Item item = itemRepository.save(ItemMapper.toItem(itemDto, user, itemRequest));
+        existence.itemCreated(item.getId());
+        searchIndex.index(item);
+        suggester.index(item);
+        requestMatcher.itemChanged(item);
         itemDto.setId(item.getId());
         log.info("Item created");
         return itemDto;
@@ -83,6 +119,10 @@ public class ItemServiceImpl implements ItemService {
             if (itemDto.getDescription() != null) item.setDescription(itemDto.getDescription());
             if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
             itemRepository.save(item);
+            searchIndex.index(item);
+            suggester.index(item);
+            requestMatcher.itemChanged(item);
+            itemViews.invalidate(itemId);
             log.info("Item updated");
         } else {
             throw new ObjectNotFoundException("Item not found for update");
@@ -91,12 +131,26 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchItem(String text, Pageable p) {
         log.info("Search results sent");
-        return itemRepository.searchByText(text.toLowerCase(), p)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        if (searchIndex.isReady()) return searchIndex.search(text, p.getOffset(), p.getPageSize());
+        return itemRepository.search(text, p);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> fuzzySearchItem(String text, Pageable p) {
+        log.info("Fuzzy search results sent");
+        return itemRepository.fuzzySearch(text, p);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> suggest(String prefix, int size) {
+        int limit = Math.min(size, suggester.getTopK());
+        if (suggester.isReady()) return suggester.suggest(prefix, limit);
+        return itemRepository.suggestNames(prefix.trim().toLowerCase(), PageRequest.of(0, limit));
     }
 
     @Override
@@ -109,25 +163,21 @@ public class ItemServiceImpl implements ItemService {
         commentDto.setCreated(LocalDateTime.now());
         Comment comment = CommentMapper.toComment(user, item, commentDto);
         commentRepository.save(comment);
+        itemViews.invalidate(itemId);
+        itemStats.itemChanged(itemId);
         return CommentMapper.toCommentDto(comment);
     }
 
-    private List<ItemDtoBooking> setAllBookingsAndComments(long userId, List<Item> items) {
-        List<Long> ids = items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        List<Booking> bookings = bookingRepository.findBookingsLast(ids, LocalDateTime.now(), userId);
-        Map<Long, ItemDtoBooking> itemsMap = items.stream()
-                .map(ItemMapper::toItemDtoBooking)
-                .collect(Collectors.toMap(ItemDtoBooking::getId, item -> item, (a, b) -> b));
-        bookings.forEach(booking -> itemsMap.get(booking.getItem().getId())
-                .setLastBooking(BookingMapper.toBookingDto(booking)));
-        bookings = bookingRepository.findBookingsNext(ids, LocalDateTime.now(), userId);
-        bookings.forEach(booking -> itemsMap.get(booking.getItem().getId())
-                .setNextBooking(BookingMapper.toBookingDto(booking)));
-        List<Comment> comments = commentRepository.findAllComments(ids);
-        comments.forEach(comment -> itemsMap.get(comment.getItem().getId())
-                .getComments().add(CommentMapper.toCommentDto(comment)));
-        return new ArrayList<>(itemsMap.values());
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageDto getComments(long itemId, KeysetCursor after, int size) {
+        existence.requireItem(itemId, "Item not found");
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> comments = after == null
+                ? commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, page)
+                : commentRepository.findPageAfter(itemId, after.getTime(), after.getId(), page);
+        return new CommentPageDto(comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList()), commentRepository.countByItemId(itemId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.stats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class ItemStatsRebuildJob {
+    private final ItemRepository itemRepository;
+    private final ItemStatsUpdater updater;
+    private final int threads;
+    private final int chunkSize;
+    private final Timer rebuildTimer;
+
+    @Autowired
+    public ItemStatsRebuildJob(ItemRepository itemRepository,
+                               ItemStatsUpdater updater,
+                               MeterRegistry meterRegistry,
+                               @Value("${shareit.item.stats.rebuild.threads:4}") int threads,
+                               @Value("${shareit.item.stats.rebuild.chunk-size:1000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.updater = updater;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        rebuildTimer = Timer.builder("item.stats.rebuild")
+                .description("Duration of a full item stats rebuild")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${shareit.item.stats.rebuild.cron:-}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public int rebuild() {
+        if (!updater.isEnabled()) return 0;
+        return rebuildTimer.record(() -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "item-stats-rebuild-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<Integer>> chunks = new ArrayList<>();
+                long after = 0;
+                List<Long> ids;
+                do {
+                    ids = itemRepository.findIdsAfter(after, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) break;
+                    List<Long> chunk = ids;
+                    chunks.add(pool.submit(() -> updater.refresh(chunk)));
+                    after = ids.get(ids.size() - 1);
+                } while (ids.size() == chunkSize);
+                int rebuilt = 0;
+                int failed = 0;
+                for (Future<Integer> chunk : chunks) {
+                    try {
+                        rebuilt += chunk.get();
+                    } catch (ExecutionException e) {
+                        failed++;
+                        log.warn("Item stats chunk rebuild failed", e.getCause());
+                    }
+                }
+                log.info("Item stats rebuilt for {} items in {} chunks, {} chunks failed", rebuilt, chunks.size(),
+                        failed);
+                return rebuilt;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Item stats rebuild interrupted", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.repository.ItemCount;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemStatsUpdater {
+    private final ItemStatsRepository statsRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate refreshTransaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration delay;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ScheduledExecutorService worker;
+    private final Counter refreshed;
+    private final Counter conflicts;
+
+    @Autowired
+    public ItemStatsUpdater(ItemStatsRepository statsRepository,
+                            BookingRepository bookingRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.item.stats.enabled:false}") boolean enabled,
+                            @Value("${shareit.item.stats.batch-size:500}") int batchSize,
+                            @Value("${shareit.item.stats.delay:200ms}") Duration delay) {
+        this.statsRepository = statsRepository;
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.delay = delay;
+        refreshTransaction = new TransactionTemplate(transactionManager);
+        refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "item-stats-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshed = Counter.builder("item.stats.refreshed")
+                .description("Item stats rows recomputed")
+                .register(meterRegistry);
+        conflicts = Counter.builder("item.stats.conflicts")
+                .description("Item stats refreshes dropped because a newer change is pending")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void itemChanged(long itemId) {
+        itemsChanged(List.of(itemId));
+    }
+
+    public void itemsChanged(Collection<Long> itemIds) {
+        if (!enabled || itemIds.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(itemIds);
+        statsRepository.markDirty(ids);
+        Transactions.afterCommit(() -> schedule(ids));
+    }
+
+    public int refresh(List<Long> itemIds) {
+        if (itemIds.isEmpty()) return 0;
+        Integer count = refreshTransaction.execute(status -> recompute(itemIds, LocalDateTime.now()));
+        return count == null ? 0 : count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void schedule(Collection<Long> itemIds) {
+        pending.addAll(itemIds);
+        startDrain();
+    }
+
+    private void startDrain() {
+        if (draining.compareAndSet(false, true)) worker.schedule(this::drain, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                List<Long> batch = new ArrayList<>(batchSize);
+                Iterator<Long> iterator = pending.iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+                try {
+                    refresh(batch);
+                } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    conflicts.increment();
+                    log.debug("Item stats refresh for {} items superseded: {}", batch.size(), e.getMessage());
+                } catch (RuntimeException e) {
+                    log.warn("Item stats refresh for {} items failed", batch.size(), e);
+                }
+            }
+        } finally {
+            draining.set(false);
+            if (!pending.isEmpty()) startDrain();
+        }
+    }
+
+    private int recompute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemStats> stats = statsRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemStats::getItemId, Function.identity()));
+        Map<Long, Long> comments = totals(statsRepository.countComments(itemIds));
+        Map<Long, Long> bookings = totals(statsRepository.countApprovedBookings(itemIds));
+        for (Long itemId : itemIds) {
+            ItemStats itemStats = stats.computeIfAbsent(itemId, ItemStats::new);
+            itemStats.setCommentCount(comments.getOrDefault(itemId, 0L));
+            itemStats.setBookingCount(bookings.getOrDefault(itemId, 0L));
+            itemStats.setLastBooking(null);
+            itemStats.setNextBooking(null);
+            itemStats.setValidUntil(null);
+            itemStats.setRefreshedAt(now);
+            itemStats.setDirty(false);
+        }
+        for (Booking booking : bookingRepository.findLastAndNextBookings(itemIds, now)) {
+            ItemStats itemStats = stats.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(now)) {
+                itemStats.setLastBooking(booking);
+            } else {
+                itemStats.setNextBooking(booking);
+                itemStats.setValidUntil(booking.getStart());
+            }
+        }
+        statsRepository.saveAll(stats.values());
+        refreshed.increment(stats.size());
+        return stats.size();
+    }
+
+    private static Map<Long, Long> totals(List<ItemCount> counts) {
+        return counts.stream().collect(Collectors.toMap(ItemCount::getItemId, ItemCount::getTotal));
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.view;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.LruCache;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Component
+public class ItemViewCache {
+    private static final String CACHE_NAME = "item.views";
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final LruCache<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expirations;
+    private final Counter invalidations;
+
+    @Autowired
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${shareit.item.view-cache.max-size:10000}") int maxSize,
+                         @Value("${shareit.item.view-cache.ttl:5m}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, Clock.systemDefaultZone());
+    }
+
+    ItemViewCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        entries = new LruCache<>(meterRegistry, CACHE_NAME, maxSize);
+        hits = gets(meterRegistry, "hit");
+        misses = gets(meterRegistry, "miss");
+        expirations = evictions(meterRegistry, "expired");
+        invalidations = evictions(meterRegistry, "invalidated");
+    }
+
+    public ItemDtoBooking get(long itemId, long userId, Supplier<Loaded> loader) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long loadedAt;
+        synchronized (this) {
+            Entry entry = entries.get(itemId);
+            if (entry != null) {
+                boolean owner = entry.ownerId == userId;
+                CachedView view = entry.view(owner);
+                if (view != null && view.expiresAt.isAfter(now)) {
+                    hits.increment();
+                    return view.item;
+                }
+                if (view != null) {
+                    entry.set(owner, null);
+                    expirations.increment();
+                }
+            }
+            misses.increment();
+            loadedAt = entries.generation();
+        }
+        Loaded loaded = loader.get();
+        boolean owner = loaded.getOwnerId() == userId;
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (owner && loaded.getItem().getNextBooking() != null
+                && loaded.getItem().getNextBooking().getStart().isBefore(expiresAt)) {
+            expiresAt = loaded.getItem().getNextBooking().getStart();
+        }
+        synchronized (this) {
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                entry = new Entry(loaded.getOwnerId());
+                if (!entries.put(itemId, entry, loadedAt)) return loaded.getItem();
+            } else if (entries.generation() != loadedAt) return loaded.getItem();
+            entry.set(owner, new CachedView(loaded.getItem(), expiresAt));
+        }
+        return loaded.getItem();
+    }
+
+    public void invalidate(long itemId) {
+        Transactions.afterCommit(() -> evict(itemId));
+    }
+
+    public void invalidateAll(Collection<Long> itemIds) {
+        itemIds.forEach(this::invalidate);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(long itemId) {
+        if (entries.remove(itemId)) invalidations.increment();
+    }
+
+    private static Counter gets(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .description("Item view cache lookups")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("cache.evictions")
+                .description("Item views removed from the cache")
+                .tag("cache", CACHE_NAME)
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Loaded {
+        private final long ownerId;
+        private final ItemDtoBooking item;
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedView {
+        private final ItemDtoBooking item;
+        private final LocalDateTime expiresAt;
+    }
+
+    private static class Entry {
+        private final long ownerId;
+        private CachedView ownerView;
+        private CachedView publicView;
+
+        private Entry(long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        private CachedView view(boolean owner) {
+            return owner ? ownerView : publicView;
+        }
+
+        private void set(boolean owner, CachedView view) {
+            if (owner) {
+                ownerView = view;
+            } else publicView = view;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -22,8 +24,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDtoResponse> getRequestsInfo(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return requestService.getRequestsInfo(userId);
+    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsInfo(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                        @RequestParam(defaultValue = "0", required = false) int from,
+                                                                        @RequestParam(defaultValue = "20", required = false) int size,
+                                                                        @RequestParam(required = false) String after) {
+        return withNextCursor(requestService.getRequestsInfo(userId, cursor(after), from, size), size);
     }
 
     @GetMapping("/{requestId}")
@@ -33,9 +38,23 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoResponse> getRequestsList(@RequestHeader("X-Sharer-User-Id") long userId,
-                                          @RequestParam(defaultValue = "0", required = false) int from,
-                                          @RequestParam(defaultValue = "10", required = false) int size) {
-        return requestService.getRequestsList(userId, from, size);
+    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsList(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                        @RequestParam(defaultValue = "0", required = false) int from,
+                                                                        @RequestParam(defaultValue = "10", required = false) int size,
+                                                                        @RequestParam(required = false) String after) {
+        return withNextCursor(requestService.getRequestsList(userId, cursor(after), from, size), size);
     }
-}
\ No newline at end of file
+
+    private static KeysetCursor cursor(String after) {
+        return after == null ? null : KeysetCursor.decode(after);
+    }
+
+    private static ResponseEntity<List<ItemRequestDtoResponse>> withNextCursor(List<ItemRequestDtoResponse> requests,
+                                                                               int size) {
+        if (requests.isEmpty() || requests.size() < size) return ResponseEntity.ok(requests);
+        ItemRequestDtoResponse last = requests.get(requests.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(requests);
+    }
+}
@@ -31,6 +31,7 @@ public class ItemRequestMapper {
                 itemRequest.getRequestor().getId(),
                 itemRequest.getDescription(),
                 itemRequest.getCreated(),
-                new ArrayList<>());
+                new ArrayList<>(),
+                null);
     }
 }
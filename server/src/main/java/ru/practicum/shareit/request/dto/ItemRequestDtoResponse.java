@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,4 +17,6 @@ public class ItemRequestDtoResponse {
     private String description;
     private LocalDateTime created;
     private List<ItemDto> items;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ItemDto> suggestions;
 }
\ No newline at end of file
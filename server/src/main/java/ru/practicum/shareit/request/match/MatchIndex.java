@@ -0,0 +1,91 @@
+package ru.practicum.shareit.request.match;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+class MatchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int STEM_LENGTH = 5;
+    private static final int MAX_SUFFIX = 2;
+    private static final Set<String> STOP_WORDS = Set.of("для", "без", "под", "над", "при", "или", "что", "как",
+            "где", "нужна", "нужен", "нужно", "нужны", "ищу", "the", "and", "for", "with", "need");
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    void put(long id, long ownerId, long requestId, Set<String> tokens) {
+        remove(id);
+        if (tokens.isEmpty()) return;
+        entries.put(id, new Entry(ownerId, requestId, tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (String token : entry.tokens) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(id);
+            if (ids.isEmpty()) postings.remove(token);
+        }
+    }
+
+    Entry get(long id) {
+        return entries.get(id);
+    }
+
+    Set<Long> candidates(Set<String> tokens) {
+        Set<Long> result = new HashSet<>();
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) result.addAll(ids);
+        }
+        return result;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static Set<String> tokens(String text) {
+        if (text == null) return Set.of();
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase()))
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token))
+                .map(MatchIndex::stem)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    static String stem(String token) {
+        if (token.length() <= STEM_LENGTH) return token;
+        return token.substring(0, Math.max(STEM_LENGTH, token.length() - MAX_SUFFIX));
+    }
+
+    static double score(Set<String> requestTokens, Set<String> itemTokens) {
+        int shared = 0;
+        for (String token : requestTokens) {
+            if (itemTokens.contains(token)) shared++;
+        }
+        return (double) shared / requestTokens.size();
+    }
+
+    static final class Entry {
+        final long ownerId;
+        final long requestId;
+        final Set<String> tokens;
+
+        private Entry(long ownerId, long requestId, Set<String> tokens) {
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.request.match;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class RequestMatcher {
+    private static final String LOAD_REQUESTS = "select r.id, r.requestor_id, r.description from requests r";
+    private static final String LOAD_ITEMS = "select i.id, i.owner_id, i.request_id, i.name, i.description " +
+            "from items i where i.is_available = true";
+    private static final String DELETE_BY_REQUEST = "delete from request_matches where request_id = ?";
+    private static final String DELETE_BY_ITEM = "delete from request_matches where item_id = ?";
+    private static final String FIND_REQUESTS_BY_ITEMS = "select distinct m.request_id from request_matches m " +
+            "where m.item_id in (%s)";
+    private static final String INSERT = "insert into request_matches (request_id, item_id, score, matched_at) " +
+            "values (?, ?, ?, ?)";
+    private static final String TRIM = "delete from request_matches where request_id = ? and item_id not in " +
+            "(select kept.item_id from (select m.item_id from request_matches m where m.request_id = ? " +
+            "order by m.score desc, m.item_id limit ?) as kept)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate matchTransaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int topK;
+    private final double minScore;
+    private final Duration delay;
+    private final MatchIndex requestIndex = new MatchIndex();
+    private final MatchIndex itemIndex = new MatchIndex();
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ScheduledExecutorService worker;
+    private final Counter stored;
+    private final Counter conflicts;
+
+    @Autowired
+    public RequestMatcher(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.request.match.enabled:false}") boolean enabled,
+                          @Value("${shareit.request.match.batch-size:200}") int batchSize,
+                          @Value("${shareit.request.match.top-k:5}") int topK,
+                          @Value("${shareit.request.match.min-score:0.5}") double minScore,
+                          @Value("${shareit.request.match.delay:200ms}") Duration delay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.topK = topK;
+        this.minScore = minScore;
+        this.delay = delay;
+        matchTransaction = new TransactionTemplate(transactionManager);
+        matchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "request-matcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        stored = Counter.builder("request.match.stored")
+                .description("Item suggestions written for item requests")
+                .register(meterRegistry);
+        conflicts = Counter.builder("request.match.conflicts")
+                .description("Match batches dropped because a request or item was deleted meanwhile")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled) worker.execute(this::load);
+    }
+
+    public void requestCreated(ItemRequest request) {
+        if (!enabled) return;
+        submit(new Change(true, request.getId(), request.getRequestor().getId(), 0, true,
+                request.getDescription()));
+    }
+
+    public void itemChanged(Item item) {
+        if (!enabled) return;
+        submit(new Change(false, item.getId(), item.getOwner().getId(),
+                item.getItemRequest() == null ? 0 : item.getItemRequest().getId(),
+                Boolean.TRUE.equals(item.getAvailable()), item.getName() + " " + item.getDescription()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    int pendingCount() {
+        return pending.size() + (draining.get() ? 1 : 0);
+    }
+
+    private void submit(Change change) {
+        Transactions.afterCommit(() -> enqueue(change));
+    }
+
+    private void enqueue(Change change) {
+        pending.add(change);
+        if (draining.compareAndSet(false, true)) worker.schedule(this::drain, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query(LOAD_REQUESTS, resultSet -> {
+            requestIndex.put(resultSet.getLong(1), resultSet.getLong(2), 0,
+                    MatchIndex.tokens(resultSet.getString(3)));
+        });
+        jdbcTemplate.query(LOAD_ITEMS, resultSet -> {
+            itemIndex.put(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                    MatchIndex.tokens(resultSet.getString(4) + " " + resultSet.getString(5)));
+        });
+        log.info("Request match index built: {} requests, {} items in {} ms", requestIndex.size(), itemIndex.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void drain() {
+        try {
+            Change change;
+            List<Change> batch = new ArrayList<>(batchSize);
+            while ((change = pending.poll()) != null) {
+                batch.add(change);
+                if (batch.size() == batchSize) {
+                    process(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) process(batch);
+        } finally {
+            draining.set(false);
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) worker.execute(this::drain);
+        }
+    }
+
+    private void process(List<Change> batch) {
+        Map<Long, Change> requests = new LinkedHashMap<>();
+        Map<Long, Change> items = new LinkedHashMap<>();
+        for (Change change : batch) {
+            (change.request ? requests : items).put(change.id, change);
+        }
+        for (Change item : items.values()) {
+            if (item.live) {
+                itemIndex.put(item.id, item.ownerId, item.requestId, MatchIndex.tokens(item.text));
+            } else {
+                itemIndex.remove(item.id);
+            }
+        }
+        for (Change request : requests.values()) {
+            requestIndex.put(request.id, request.ownerId, 0, MatchIndex.tokens(request.text));
+        }
+        Map<Long, Map<Long, Double>> matches = new LinkedHashMap<>();
+        for (Long requestId : requests.keySet()) {
+            Map<Long, Double> top = matchItems(requestId);
+            if (!top.isEmpty()) matches.put(requestId, top);
+        }
+        for (Long itemId : items.keySet()) {
+            MatchIndex.Entry item = itemIndex.get(itemId);
+            if (item == null) continue;
+            for (Long requestId : requestIndex.candidates(item.tokens)) {
+                double score = score(requestId, itemId, item);
+                if (score >= minScore) matches.computeIfAbsent(requestId, id -> new LinkedHashMap<>()).put(itemId, score);
+            }
+        }
+        try {
+            matchTransaction.executeWithoutResult(status -> store(requests.keySet(), items.keySet(), matches));
+        } catch (DataIntegrityViolationException e) {
+            conflicts.increment();
+            log.debug("Request match batch of {} changes superseded: {}", batch.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Request match batch of {} changes failed", batch.size(), e);
+        }
+    }
+
+    private Map<Long, Double> matchItems(long requestId) {
+        MatchIndex.Entry request = requestIndex.get(requestId);
+        if (request == null) return Map.of();
+        return itemIndex.candidates(request.tokens).stream()
+                .map(itemId -> Map.entry(itemId, score(requestId, itemId, itemIndex.get(itemId))))
+                .filter(match -> match.getValue() >= minScore)
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topK)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private double score(long requestId, long itemId, MatchIndex.Entry item) {
+        MatchIndex.Entry request = requestIndex.get(requestId);
+        if (request == null || item == null) return 0;
+        if (request.ownerId == item.ownerId || item.requestId == requestId) return 0;
+        return MatchIndex.score(request.tokens, item.tokens);
+    }
+
+    private void store(Set<Long> requestIds, Set<Long> itemIds, Map<Long, Map<Long, Double>> matches) {
+        Set<Long> refilled = new LinkedHashSet<>(requestIds);
+        for (Long requestId : requestsMatching(itemIds)) {
+            if (!refilled.add(requestId)) continue;
+            Map<Long, Double> top = matchItems(requestId);
+            if (top.isEmpty()) {
+                matches.remove(requestId);
+            } else matches.put(requestId, top);
+        }
+        batch(DELETE_BY_REQUEST, ids(refilled));
+        batch(DELETE_BY_ITEM, ids(itemIds));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> trims = new ArrayList<>();
+        matches.forEach((requestId, scores) -> {
+            scores.forEach((itemId, score) -> rows.add(new Object[]{requestId, itemId, score, now}));
+            trims.add(new Object[]{requestId, requestId, topK});
+        });
+        batch(INSERT, rows);
+        batch(TRIM, trims);
+        stored.increment(rows.size());
+    }
+
+    private List<Long> requestsMatching(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) return List.of();
+        String placeholders = String.join(", ", Collections.nCopies(itemIds.size(), "?"));
+        return jdbcTemplate.queryForList(String.format(FIND_REQUESTS_BY_ITEMS, placeholders), Long.class,
+                itemIds.toArray());
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private static List<Object[]> ids(Set<Long> ids) {
+        return ids.stream()
+                .map(id -> new Object[]{id})
+                .collect(Collectors.toList());
+    }
+
+    private static final class Change {
+        private final boolean request;
+        private final long id;
+        private final long ownerId;
+        private final long requestId;
+        private final boolean live;
+        private final String text;
+
+        private Change(boolean request, long id, long ownerId, long requestId, boolean live, String text) {
+            this.request = request;
+            this.id = id;
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+            this.live = live;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+
+import java.util.List;
+
+public interface ItemRequestFeedRepository {
+    List<ItemRequestDtoResponse> findOwnFeed(long userId, KeysetCursor after, Pageable p);
+
+    List<ItemRequestDtoResponse> findOthersFeed(long userId, KeysetCursor after, Pageable p);
+
+    List<ItemDto> findSuggestedItems(long requestId);
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ItemRequestFeedRepositoryImpl implements ItemRequestFeedRepository {
+    private static final String OWN = "q.requestor_id = :userId";
+    private static final String OTHERS = "q.requestor_id <> :userId";
+    private static final String SUGGESTIONS = "select i.id, i.name, i.description, i.is_available, i.request_id " +
+            "from request_matches m " +
+            "join items i on i.id = m.item_id " +
+            "where m.request_id = :requestId and i.is_available = true " +
+            "order by m.score desc, i.id";
+    private static final String AFTER = " and (q.created < :created or (q.created = :created and q.id < :id))";
+
+    private final EntityManager em;
+
+    @Autowired
+    public ItemRequestFeedRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<ItemRequestDtoResponse> findOwnFeed(long userId, KeysetCursor after, Pageable p) {
+        return feed(OWN, userId, after, p);
+    }
+
+    @Override
+    public List<ItemRequestDtoResponse> findOthersFeed(long userId, KeysetCursor after, Pageable p) {
+        return feed(OTHERS, userId, after, p);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ItemDto> findSuggestedItems(long requestId) {
+        return ((List<Object[]>) em.createNativeQuery(SUGGESTIONS)
+                .setParameter("requestId", requestId)
+                .getResultList()).stream()
+                .map(row -> new ItemDto(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        (Boolean) row[3], row[4] == null ? null : ((Number) row[4]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemRequestDtoResponse> feed(String condition, long userId, KeysetCursor after, Pageable p) {
+        Query query = em.createNativeQuery(feedQuery(condition + (after == null ? "" : AFTER)))
+                .setParameter("userId", userId)
+                .setParameter("limit", p.getPageSize())
+                .setParameter("offset", p.getOffset());
+        if (after != null) {
+            query.setParameter("created", after.getTime()).setParameter("id", after.getId());
+        }
+        return assemble(query);
+    }
+
+    private static String feedQuery(String condition) {
+        return "select r.id, r.requestor_id, r.description, r.created, " +
+                "i.id as item_id, i.name, i.description as item_description, i.is_available " +
+                "from (select q.id, q.requestor_id, q.description, q.created " +
+                "from requests q " +
+                "where " + condition + " " +
+                "order by q.created desc, q.id desc " +
+                "limit :limit offset :offset) as r " +
+                "left join items i on i.request_id = r.id " +
+                "order by r.created desc, r.id desc, i.id";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ItemRequestDtoResponse> assemble(Query query) {
+        List<ItemRequestDtoResponse> requests = new ArrayList<>();
+        ItemRequestDtoResponse current = null;
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            long id = ((Number) row[0]).longValue();
+            if (current == null || current.getId() != id) {
+                current = new ItemRequestDtoResponse(id, ((Number) row[1]).longValue(), (String) row[2],
+                        ((Timestamp) row[3]).toLocalDateTime(), new ArrayList<>(), null);
+                requests.add(current);
+            }
+            if (row[4] != null) {
+                current.getItems().add(new ItemDto(((Number) row[4]).longValue(), (String) row[5], (String) row[6],
+                        (Boolean) row[7], id));
+            }
+        }
+        return requests;
+    }
+}
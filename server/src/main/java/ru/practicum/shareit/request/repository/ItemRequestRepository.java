@@ -1,18 +1,17 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorId(long userId);
-
-    @Query("select itemRequest from ItemRequest itemRequest " +
-            "where itemRequest.requestor.id != ?1")
-    List<ItemRequest> findAllPageable(long userId, Pageable p);
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>, ItemRequestFeedRepository {
+    @Query("select itemRequest.id from ItemRequest itemRequest " +
+            "where itemRequest.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
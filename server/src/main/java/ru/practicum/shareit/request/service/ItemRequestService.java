@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 
@@ -8,9 +9,9 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequestDto create(long userId, ItemRequestDto itemRequestDto);
 
-    List<ItemRequestDtoResponse> getRequestsInfo(long userId);
+    List<ItemRequestDtoResponse> getRequestsInfo(long userId, KeysetCursor after, int from, int size);
 
     ItemRequestDtoResponse getRequestInfo(long userId, long requestId);
 
-    List<ItemRequestDtoResponse> getRequestsList(long userId, int from, int size);
+    List<ItemRequestDtoResponse> getRequestsList(long userId, KeysetCursor after, int from, int size);
 }
@@ -5,23 +5,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
-import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.match.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -30,58 +29,44 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final ExistenceService existence;
+    private final RequestMatcher requestMatcher;
 
     @Override
     public ItemRequestDto create(long userId, ItemRequestDto itemRequestDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new ObjectNotFoundException("User not found"));
+        existence.requireUser(userId, "User not found");
+        User user = userRepository.getReferenceById(userId);
         itemRequestDto.setCreated(LocalDateTime.now());
         ItemRequest itemRequest = requestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDto, user));
+        requestMatcher.requestCreated(itemRequest);
         log.info("Request created");
         return ItemRequestMapper.toItemRequestDto(itemRequest);
     }
 
     @Override
-    public List<ItemRequestDtoResponse> getRequestsInfo(long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new ObjectNotFoundException("User not found"));
-        List<ItemRequestDtoResponse> responseList = requestRepository.findAllByRequestorId(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDtoResponse)
-                .collect(Collectors.toList());
-        return setItemsToRequests(responseList);
+    public List<ItemRequestDtoResponse> getRequestsInfo(long userId, KeysetCursor after, int from, int size) {
+        existence.requireUser(userId, "User not found");
+        return requestRepository.findOwnFeed(userId, after, page(after, from, size));
     }
 
     @Override
     public ItemRequestDtoResponse getRequestInfo(long userId, long requestId) {
-        userRepository.findById(userId).orElseThrow(() -> new ObjectNotFoundException("User not found"));
+        existence.requireUser(userId, "User not found");
         ItemRequest itemRequest = requestRepository.findById(requestId).orElseThrow(() ->
                 new ObjectNotFoundException("Request not found"));
-        List<ItemDto> items = itemRepository.findByItemRequestId(requestId).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        List<ItemDto> items = itemRepository.findByItemRequestId(requestId);
         ItemRequestDtoResponse itemRequestDtoResponse = ItemRequestMapper.toItemRequestDtoResponse(itemRequest);
         itemRequestDtoResponse.setItems(items);
+        itemRequestDtoResponse.setSuggestions(requestRepository.findSuggestedItems(requestId));
         return itemRequestDtoResponse;
     }
 
     @Override
-    public List<ItemRequestDtoResponse> getRequestsList(long userId, int from, int size) {
-        int page = from / size;
-        PageRequest pr = PageRequest.of(page, size);
-        List<ItemRequestDtoResponse> responseList = requestRepository.findAllPageable(userId, pr).stream()
-                .map(ItemRequestMapper::toItemRequestDtoResponse)
-                .collect(Collectors.toList());
-        return setItemsToRequests(responseList);
+    public List<ItemRequestDtoResponse> getRequestsList(long userId, KeysetCursor after, int from, int size) {
+        return requestRepository.findOthersFeed(userId, after, page(after, from, size));
     }
 
-    private List<ItemRequestDtoResponse> setItemsToRequests(List<ItemRequestDtoResponse> itemRequestDtoResponseList) {
-        Map<Long, ItemRequestDtoResponse> requests = itemRequestDtoResponseList.stream()
-                .collect(Collectors.toMap(ItemRequestDtoResponse::getId, film -> film, (a, b) -> b));
-        List<Long> ids = requests.values().stream()
-                .map(ItemRequestDtoResponse::getId)
-                .collect(Collectors.toList());
-        List<ItemDto> items = itemRepository.searchByRequestsId(ids).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-        items.forEach(itemDto -> requests.get(itemDto.getRequestId()).getItems().add(itemDto));
-        return new ArrayList<>(requests.values());
+    private static PageRequest page(KeysetCursor after, int from, int size) {
+        return after == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size);
     }
 }
@@ -2,7 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.UserExporter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -14,10 +19,24 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserExporter userExporter;
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(defaultValue = "0", required = false) int from,
+                                                     @RequestParam(defaultValue = "20", required = false) int size,
+                                                     @RequestParam(required = false) Long after) {
+        List<UserDto> users = userService.getAllUsers(after, from, size);
+        if (users.isEmpty() || users.size() < size) return ResponseEntity.ok(users);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()))
+                .body(users);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userExporter.streamUsers());
     }
 
     @GetMapping("/{id}")
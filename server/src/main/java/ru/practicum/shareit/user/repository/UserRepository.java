@@ -1,9 +1,15 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+    List<User> findAllByOrderByIdAsc(Pageable p);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(long id, Pageable p);
+}
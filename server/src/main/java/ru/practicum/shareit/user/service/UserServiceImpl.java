@@ -3,8 +3,10 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -21,11 +23,15 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ExistenceService existence;
 
     @Override
-    public List<UserDto> getAllUsers() {
-        log.info("All users sent");
-        return userRepository.findAll().stream()
+    public List<UserDto> getAllUsers(Long after, int from, int size) {
+        log.info("Users page sent");
+        List<User> users = after == null
+                ? userRepository.findAllByOrderByIdAsc(PageRequest.of(from / size, size))
+                : userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size));
+        return users.stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
@@ -44,6 +50,7 @@ public class UserServiceImpl implements UserService {
     public UserDto create(UserDto userDto) {
         log.info("User created");
         User user = userRepository.save(UserMapper.toUser(userDto));
+        existence.userCreated(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -65,5 +72,6 @@ public class UserServiceImpl implements UserService {
     public void delete(long id) {
         log.info("User with id {} deleted", id);
         userRepository.findById(id).ifPresent(userRepository::delete);
+        existence.userDeleted(id);
     }
 }
@@ -0,0 +1,15 @@
+-- denormalised per-item aggregates read by item views, maintained by ItemStatsUpdater
+CREATE TABLE IF NOT EXISTS ITEM_STATS (
+    ITEM_ID             BIGINT primary key,
+    COMMENT_COUNT       BIGINT not null,
+    BOOKING_COUNT       BIGINT not null,
+    LAST_BOOKING_ID     BIGINT,
+    NEXT_BOOKING_ID     BIGINT,
+    VALID_UNTIL         TIMESTAMP WITHOUT TIME ZONE,
+    REFRESHED_AT        TIMESTAMP WITHOUT TIME ZONE not null,
+    DIRTY               BOOLEAN not null,
+    VERSION             BIGINT not null,
+    CONSTRAINT fk_item_stats_item
+        FOREIGN KEY (item_id)
+            REFERENCES items(id) ON DELETE CASCADE
+);
@@ -0,0 +1,2 @@
+-- request feed of other users, newest first with keyset continuation: findOthersFeed
+CREATE INDEX IF NOT EXISTS ix_requests_created ON REQUESTS (CREATED DESC, ID DESC);
@@ -0,0 +1,17 @@
+-- item suggestions for open requests, maintained asynchronously by RequestMatcher
+CREATE TABLE IF NOT EXISTS REQUEST_MATCHES (
+    REQUEST_ID      BIGINT not null,
+    ITEM_ID         BIGINT not null,
+    SCORE           DOUBLE PRECISION not null,
+    MATCHED_AT      TIMESTAMP WITHOUT TIME ZONE not null,
+    CONSTRAINT pk_request_matches PRIMARY KEY (REQUEST_ID, ITEM_ID),
+    CONSTRAINT fk_request_matches_request
+        FOREIGN KEY (request_id)
+            REFERENCES requests(id) ON DELETE CASCADE,
+    CONSTRAINT fk_request_matches_item
+        FOREIGN KEY (item_id)
+            REFERENCES items(id) ON DELETE CASCADE
+);
+
+-- replacing the suggestions of a changed item
+CREATE INDEX IF NOT EXISTS ix_request_matches_item ON REQUEST_MATCHES (ITEM_ID);
@@ -0,0 +1,17 @@
+-- booking lists by booker: findAllByBookerIdOrderByStartDesc, findByBooker*, keyset pages
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON BOOKINGS (BOOKER_ID, START_TIME DESC, ID DESC);
+
+-- last/next booking per item, availability index load, comment permission check
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON BOOKINGS (ITEM_ID, START_TIME);
+
+-- owner item pages and owner booking lists joined through items
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON ITEMS (OWNER_ID, ID);
+
+-- items answering requests: searchByRequestsId, findByItemRequestId
+CREATE INDEX IF NOT EXISTS ix_items_request ON ITEMS (REQUEST_ID);
+
+-- comments of an item page: findAllComments
+CREATE INDEX IF NOT EXISTS ix_comments_item ON COMMENTS (ITEM_ID);
+
+-- own requests: findAllByRequestorId
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON REQUESTS (REQUESTOR_ID, CREATED DESC);
@@ -0,0 +1 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS VERSION BIGINT NOT NULL DEFAULT 0;
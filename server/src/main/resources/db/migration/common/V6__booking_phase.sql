@@ -0,0 +1,10 @@
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS PHASE VARCHAR(10);
+
+UPDATE BOOKINGS SET PHASE = CASE
+    WHEN END_TIME <= LOCALTIMESTAMP THEN 'PAST'
+    WHEN START_TIME <= LOCALTIMESTAMP THEN 'CURRENT'
+    ELSE 'FUTURE' END;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_phase_start ON BOOKINGS (BOOKER_ID, PHASE, START_TIME);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_phase_start ON BOOKINGS (ITEM_ID, PHASE, START_TIME);
@@ -0,0 +1,5 @@
+-- latest comments per item and keyset comment pages: findLatestComments, findPage*
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON COMMENTS (ITEM_ID, CREATED DESC, ID DESC);
+
+-- superseded by ix_comments_item_created
+DROP INDEX IF EXISTS ix_comments_item;
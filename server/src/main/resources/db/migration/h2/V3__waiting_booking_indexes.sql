@@ -0,0 +1,4 @@
+-- H2 has no partial indexes, status leads the key instead
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_waiting ON BOOKINGS (STATUS, BOOKER_ID, START_TIME DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_waiting ON BOOKINGS (STATUS, ITEM_ID, START_TIME DESC, ID DESC);
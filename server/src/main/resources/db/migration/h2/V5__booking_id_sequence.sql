@@ -0,0 +1,5 @@
+CREATE SEQUENCE IF NOT EXISTS BOOKING_ID_SEQ INCREMENT BY 50;
+
+ALTER TABLE BOOKINGS ALTER COLUMN ID DROP IDENTITY;
+
+ALTER TABLE BOOKINGS ALTER COLUMN ID SET DEFAULT NEXT VALUE FOR BOOKING_ID_SEQ;
@@ -0,0 +1,2 @@
+-- H2 has no tsvector type: full-text item search falls back to token matching in ItemSearchRepositoryImpl.
+-- The migration is kept so both vendors share the same schema version history.
@@ -0,0 +1 @@
+-- H2 has no pg_trgm: fuzzy item search is scored by TrigramScorer in ItemSearchRepositoryImpl.
@@ -0,0 +1,6 @@
+-- WAITING lists by booker and by owner only touch the small set of undecided bookings
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_waiting ON BOOKINGS (BOOKER_ID, START_TIME DESC, ID DESC)
+    WHERE STATUS = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_waiting ON BOOKINGS (ITEM_ID, START_TIME DESC, ID DESC)
+    WHERE STATUS = 'WAITING';
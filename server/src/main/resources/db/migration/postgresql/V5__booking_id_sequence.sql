@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS BOOKING_ID_SEQ INCREMENT BY 50;
+
+SELECT setval('booking_id_seq', coalesce(max(ID), 0) + 1, false) FROM BOOKINGS;
+
+ALTER TABLE BOOKINGS ALTER COLUMN ID DROP IDENTITY IF EXISTS;
+
+ALTER TABLE BOOKINGS ALTER COLUMN ID SET DEFAULT nextval('booking_id_seq');
@@ -0,0 +1,5 @@
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS SEARCH_VECTOR tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(NAME, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(DESCRIPTION, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_vector ON ITEMS USING GIN (SEARCH_VECTOR);
@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.stats.ItemStatsRebuildJob;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.item.stats.delay=1h"})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class EndpointQueryCountTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ItemStatsRebuildJob statsRebuildJob;
+
+    private Statistics statistics;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long requestId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = insertUser("owner");
+        bookerId = insertUser("booker");
+        jdbcTemplate.update("insert into requests (requestor_id, description, created) values (?, ?, ?)",
+                bookerId, "request", Timestamp.valueOf(LocalDateTime.now()));
+        requestId = jdbcTemplate.queryForObject("select max(id) from requests", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            jdbcTemplate.update("insert into items (name, description, is_available, owner_id, request_id) " +
+                    "values (?, ?, true, ?, ?)", "item" + i, "description" + i, ownerId, requestId);
+            itemId = jdbcTemplate.queryForObject("select max(id) from items", Long.class);
+            insertBooking(now.minusDays(2 + i), now.minusDays(1 + i));
+            insertBooking(now.plusDays(1 + i), now.plusDays(2 + i));
+            jdbcTemplate.update("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                    "comment", itemId, bookerId, Timestamp.valueOf(now));
+        }
+        statsRebuildJob.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void bookingsByBooker() throws Exception {
+        assertEquals(2, statements(get("/bookings?state=ALL").header("X-Sharer-User-Id", bookerId)));
+    }
+
+    @Test
+    void bookingsByOwner() throws Exception {
+        assertEquals(2, statements(get("/bookings/owner?state=PAST").header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void bookingById() throws Exception {
+        long bookingId = jdbcTemplate.queryForObject("select max(id) from bookings", Long.class);
+
+        assertEquals(1, statements(get("/bookings/" + bookingId).header("X-Sharer-User-Id", bookerId)));
+    }
+
+    @Test
+    void ownerItems() throws Exception {
+        assertEquals(3, statements(get("/items").header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void ownerItemsWithoutStats() throws Exception {
+        jdbcTemplate.update("delete from item_stats");
+
+        assertEquals(6, statements(get("/items").header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void itemById() throws Exception {
+        assertEquals(3, statements(get("/items/" + itemId).header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void itemByIdCached() throws Exception {
+        statements(get("/items/" + itemId).header("X-Sharer-User-Id", ownerId));
+
+        assertEquals(0, statements(get("/items/" + itemId).header("X-Sharer-User-Id", ownerId)));
+        assertEquals(3, statements(get("/items/" + itemId).header("X-Sharer-User-Id", bookerId)));
+    }
+
+    @Test
+    void itemSearch() throws Exception {
+        assertEquals(1, statements(get("/items/search?text=item").header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void ownRequests() throws Exception {
+        assertEquals(2, statements(get("/requests").header("X-Sharer-User-Id", bookerId)));
+    }
+
+    @Test
+    void otherRequests() throws Exception {
+        assertEquals(1, statements(get("/requests/all").header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void requestById() throws Exception {
+        assertEquals(4, statements(get("/requests/" + requestId).header("X-Sharer-User-Id", ownerId)));
+    }
+
+    @Test
+    void bulkBookingCreation() throws Exception {
+        long bookerWithoutBookings = insertUser("bulk");
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            bookings.add(new BookingDto(null, start.plusDays(i), start.plusDays(i).plusHours(1), itemId,
+                    null, null));
+        }
+
+        long statements = statements(post("/bookings/batch")
+                .header("X-Sharer-User-Id", bookerWithoutBookings)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookings)));
+
+        assertEquals(100, jdbcTemplate.queryForObject("select count(*) from bookings where booker_id = ?",
+                Long.class, bookerWithoutBookings));
+        assertTrue(statements <= 9, statements + " statements for 100 bookings");
+    }
+
+    private long statements(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long insertUser(String name) {
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name, name + "@email.ru");
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, name + "@email.ru");
+    }
+
+    private void insertBooking(LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, 'APPROVED', ?)", Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                BookingPhase.of(start, end, LocalDateTime.now()).name());
+    }
+}
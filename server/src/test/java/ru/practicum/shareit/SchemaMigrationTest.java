@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+class SchemaMigrationTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" " +
+                        "where \"success\" = true and \"version\" is not null order by \"installed_rank\"",
+                String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"), versions);
+    }
+
+    @Test
+    void queryIndexesCreated() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes", String.class);
+
+        assertTrue(indexes.containsAll(List.of("ix_bookings_booker_start", "ix_bookings_item_start",
+                "ix_items_owner_id", "ix_items_request", "ix_comments_item_created", "ix_requests_requestor_created",
+                "ix_bookings_booker_waiting", "ix_bookings_item_waiting", "ix_bookings_booker_phase_start",
+                "ix_bookings_item_phase_start", "ix_requests_created", "ix_request_matches_item")));
+    }
+}
@@ -7,21 +7,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeResult;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.search.BookingRole;
+import ru.practicum.shareit.booking.search.BookingState;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.OwnerExporter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +43,8 @@ class BookingControllerTest {
     private final MockMvc mvc;
     @MockBean
     BookingService bookingService;
+    @MockBean
+    OwnerExporter ownerExporter;
 
     User user = new User(
             1L,
@@ -50,7 +63,8 @@ class BookingControllerTest {
             LocalDateTime.now().plusHours(3),
             item,
             user,
-            BookingStatus.WAITING);
+            BookingStatus.WAITING,
+            0L);
     BookingDto bookingDto = new BookingDto(
             null,
             LocalDateTime.now().plusHours(2),
@@ -103,7 +117,7 @@ class BookingControllerTest {
 
     @Test
     void getByBookerTest() throws Exception {
-        when(bookingService.getByBooker(anyLong(), anyString(), any())).thenReturn(Collections.singletonList(bdr));
+        when(bookingService.search(any())).thenReturn(Collections.singletonList(bdr));
 
         mvc.perform(get("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -117,7 +131,7 @@ class BookingControllerTest {
 
     @Test
     void getByOwnerTest() throws Exception {
-        when(bookingService.getByOwner(anyLong(), anyString(), any())).thenReturn(Collections.singletonList(bdr));
+        when(bookingService.search(any())).thenReturn(Collections.singletonList(bdr));
 
         mvc.perform(get("/bookings/owner")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -128,4 +142,77 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name").value("name"))
                 .andExpect(jsonPath("$[0].booker.name").value("name"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByBookerWithCursorTest() throws Exception {
+        String after = new KeysetCursor(LocalDateTime.now().plusDays(1), 5L).encode();
+        when(bookingService.search(argThat(search -> search.getAfter() != null && search.getPage().getPageSize() == 1)))
+                .thenReturn(Collections.singletonList(bdr));
+
+        mvc.perform(get("/bookings?size=1&after=" + after)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(bdr.getStart(), bdr.getId()).encode()));
+    }
+
+    @Test
+    void getByOwnerWithInvalidCursorTest() throws Exception {
+        mvc.perform(get("/bookings/owner?after=broken")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getByOwnerWithFiltersTest() throws Exception {
+        when(bookingService.search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.WAITING, BookingState.FUTURE))
+                && search.getItemId() == 1L
+                && search.getRangeStart().equals(LocalDateTime.of(2030, 1, 1, 0, 0))
+                && search.getRangeEnd() == null)))
+                .thenReturn(Collections.singletonList(bdr));
+
+        mvc.perform(get("/bookings/owner?state=WAITING,FUTURE&itemId=1&rangeStart=2030-01-01T00:00:00")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void changeStatusesTest() throws Exception {
+        List<BookingStatusChangeDto> changes = List.of(new BookingStatusChangeDto(1L, true, 0L),
+                new BookingStatusChangeDto(2L, false, null));
+        when(bookingService.changeStatuses(anyLong(), any())).thenReturn(List.of(
+                new BookingStatusChangeResult(1L, BookingChangeOutcome.UPDATED, BookingStatus.APPROVED, 1L),
+                new BookingStatusChangeResult(2L, BookingChangeOutcome.CONFLICT, BookingStatus.WAITING, 3L)));
+
+        mvc.perform(patch("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(changes)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].version").value(1L))
+                .andExpect(jsonPath("$[1].outcome").value("CONFLICT"));
+    }
+
+    @Test
+    void changeStatusConcurrentUpdateTest() throws Exception {
+        when(bookingService.changeStatus(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        mvc.perform(patch("/bookings/1?approved=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isConflict());
+    }
+}
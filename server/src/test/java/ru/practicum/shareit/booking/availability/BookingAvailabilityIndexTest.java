@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingAvailabilityIndexTest {
+    BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    BookingAvailabilityIndex index = new BookingAvailabilityIndex(bookingRepository, 10000);
+
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    User user = new User(1L, "name", "email@email.ru");
+    Item item = new Item(1L, "name", "description", true, user, null);
+
+    @Test
+    void reserve_whenSlotFree_thenBookingSavedAndSlotTaken() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+
+        index.reserve(booking(1L, 1, 3), b -> b);
+
+        assertFalse(index.isFree(1L, now.plusHours(2), now.plusHours(4)));
+        assertTrue(index.isFree(1L, now.plusHours(3), now.plusHours(4)));
+        assertTrue(index.isFree(1L, now, now.plusHours(1)));
+    }
+
+    @Test
+    void reserve_whenSlotTaken_thenExceptionThrown() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any()))
+                .thenReturn(List.of(booking(1L, 1, 5)));
+
+        assertThrows(BadRequestException.class, () -> index.reserve(booking(2L, 2, 3), b -> b));
+        assertThrows(BadRequestException.class, () -> index.reserve(booking(3L, 0, 2), b -> b));
+        assertThrows(BadRequestException.class, () -> index.reserve(booking(4L, 4, 6), b -> b));
+    }
+
+    @Test
+    void isFree_whenLegacyBookingsOverlap_thenNestedConflictFound() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any()))
+                .thenReturn(List.of(booking(1L, 1, 10), booking(2L, 2, 3)));
+
+        assertFalse(index.isFree(1L, now.plusHours(5), now.plusHours(6)));
+
+        index.release(booking(1L, 1, 10));
+
+        assertTrue(index.isFree(1L, now.plusHours(5), now.plusHours(6)));
+        assertFalse(index.isFree(1L, now.plusHours(2), now.plusHours(4)));
+    }
+
+    @Test
+    void isFree_whenLoadedOnce_thenRepositoryNotQueriedAgain() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+
+        index.isFree(1L, now, now.plusHours(1));
+        index.isFree(1L, now, now.plusHours(1));
+
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(anyLong(), any(), any());
+    }
+
+    @Test
+    void reserve_whenReservationsEnded_thenPruned() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any()))
+                .thenReturn(List.of(booking(1L, -5, -3)));
+        assertFalse(index.isFree(1L, now.minusHours(4), now.minusHours(2)));
+
+        index.reserve(booking(2L, 1, 2), b -> b);
+
+        assertTrue(index.isFree(1L, now.minusHours(4), now.minusHours(2)));
+        assertFalse(index.isFree(1L, now.plusHours(1), now.plusHours(2)));
+    }
+
+    @Test
+    void isFree_whenMoreItemsThanLimit_thenLeastRecentlyUsedEvicted() {
+        BookingAvailabilityIndex bounded = new BookingAvailabilityIndex(bookingRepository, 2);
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+
+        bounded.isFree(1L, now, now.plusHours(1));
+        bounded.isFree(2L, now, now.plusHours(1));
+        bounded.isFree(1L, now, now.plusHours(1));
+        bounded.isFree(3L, now, now.plusHours(1));
+
+        assertTrue(bounded.size() <= 2);
+        bounded.isFree(1L, now, now.plusHours(1));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(eq(1L), any(), any());
+        bounded.isFree(2L, now, now.plusHours(1));
+        verify(bookingRepository, times(2)).findByItemIdAndStatusIn(eq(2L), any(), any());
+    }
+
+    @Test
+    void isFree_whenReservationUncommitted_thenItemNotEvicted() {
+        BookingAvailabilityIndex bounded = new BookingAvailabilityIndex(bookingRepository, 1);
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bounded.reserve(booking(1L, 1, 2), b -> b);
+            bounded.isFree(2L, now, now.plusHours(1));
+
+            assertFalse(bounded.isFree(1L, now.plusHours(1), now.plusHours(2)));
+            verify(bookingRepository, times(1)).findByItemIdAndStatusIn(eq(1L), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bounded.isFree(3L, now, now.plusHours(1));
+
+        assertEquals(1, bounded.size());
+    }
+
+    private Booking booking(long id, int startHours, int endHours) {
+        return new Booking(id, now.plusHours(startHours), now.plusHours(endHours), item, user, BookingStatus.WAITING);
+    }
+}
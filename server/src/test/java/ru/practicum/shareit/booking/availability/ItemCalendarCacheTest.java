@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.AvailabilityRangeDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemCalendarCacheTest {
+    BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    ItemCalendarCache cache = new ItemCalendarCache(bookingRepository, new SimpleMeterRegistry(), 10000);
+
+    LocalDate today = LocalDate.now();
+    User user = new User(1L, "name", "email@email.ru");
+    Item item = new Item(1L, "name", "description", true, user, null);
+
+    @Test
+    void getAvailability_whenBookingsApproved_thenBusyAndFreeRangesReturned() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(List.of(
+                booking(1L, today.plusDays(2), today.plusDays(4)),
+                booking(2L, today.plusDays(4), today.plusDays(5)),
+                booking(3L, today.minusDays(3), today.plusDays(1))));
+
+        List<AvailabilityRangeDto> ranges = cache.getAvailability(1L, today.minusDays(10), today.plusDays(7));
+
+        assertEquals(List.of(
+                new AvailabilityRangeDto(today, today, false),
+                new AvailabilityRangeDto(today.plusDays(1), today.plusDays(1), true),
+                new AvailabilityRangeDto(today.plusDays(2), today.plusDays(4), false),
+                new AvailabilityRangeDto(today.plusDays(5), today.plusDays(7), true)), ranges);
+        verify(bookingRepository).findByItemIdAndStatusIn(1L, today.atStartOfDay(), List.of(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void getAvailability_whenCached_thenLoadedOnceUntilInvalidated() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(List.of());
+
+        cache.getAvailability(1L, today, today.plusDays(3));
+        cache.getAvailability(1L, today.plusDays(1), today.plusDays(2));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(anyLong(), any(), any());
+
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any()))
+                .thenReturn(List.of(booking(1L, today.plusDays(1), today.plusDays(2))));
+        cache.invalidate(1L);
+
+        assertEquals(List.of(
+                new AvailabilityRangeDto(today, today, true),
+                new AvailabilityRangeDto(today.plusDays(1), today.plusDays(1), false),
+                new AvailabilityRangeDto(today.plusDays(2), today.plusDays(3), true)),
+                cache.getAvailability(1L, today, today.plusDays(3)));
+        verify(bookingRepository, times(2)).findByItemIdAndStatusIn(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAvailability_whenMoreItemsThanMaxSize_thenLeastRecentlyUsedEvicted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ItemCalendarCache bounded = new ItemCalendarCache(bookingRepository, meterRegistry, 2);
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(List.of());
+
+        bounded.getAvailability(1L, today, today.plusDays(1));
+        bounded.getAvailability(2L, today, today.plusDays(1));
+        bounded.getAvailability(1L, today, today.plusDays(1));
+        bounded.getAvailability(3L, today, today.plusDays(1));
+
+        assertEquals(2, bounded.size());
+        bounded.getAvailability(1L, today, today.plusDays(1));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(eq(1L), any(), any());
+        bounded.getAvailability(2L, today, today.plusDays(1));
+        verify(bookingRepository, times(2)).findByItemIdAndStatusIn(eq(2L), any(), any());
+        assertEquals(2, meterRegistry.get("cache.evictions").tag("cache", "item.calendars").counter().count());
+    }
+
+    private Booking booking(long id, LocalDate startDay, LocalDate endDay) {
+        return new Booking(id, startDay.atTime(12, 0), endDay.atStartOfDay(), item, user, BookingStatus.APPROVED);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+class BookingPhaseRolloverTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingPhaseRollover rollover;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        rollover = new BookingPhaseRollover(bookingRepository, meterRegistry, 2, 10);
+        User owner = em.persist(new User(null, "owner", "owner@email.ru"));
+        booker = em.persist(new User(null, "booker", "booker@email.ru"));
+        item = em.persist(new Item(null, "name", "description", true, owner, null));
+    }
+
+    @Test
+    void rollover_whenTimePassed_thenPhasesAdvancedInBatches() {
+        Booking started = persist(now.minusHours(3), now.plusHours(1), BookingPhase.FUTURE);
+        Booking ended = persist(now.minusHours(5), now.minusHours(2), BookingPhase.CURRENT);
+        Booking skipped = persist(now.minusHours(5), now.minusHours(4), BookingPhase.FUTURE);
+        Booking untouched = persist(now.plusHours(1), now.plusHours(2), BookingPhase.FUTURE);
+        Booking unknown = persist(now.plusHours(3), now.plusHours(4), null);
+
+        int moved = rollover.rollover(now);
+        em.clear();
+
+        assertEquals(4, moved);
+        assertEquals(BookingPhase.CURRENT, phase(started));
+        assertEquals(BookingPhase.PAST, phase(ended));
+        assertEquals(BookingPhase.PAST, phase(skipped));
+        assertEquals(BookingPhase.FUTURE, phase(untouched));
+        assertEquals(BookingPhase.FUTURE, phase(unknown));
+        assertEquals(2.0, meterRegistry.get("booking.phase.transitions").tag("phase", "PAST").counter().count());
+        assertEquals(0, rollover.getLagSeconds());
+        assertEquals(0, rollover.rollover(now));
+    }
+
+    @Test
+    void rollover_whenLimitedBatches_thenLagReported() {
+        rollover = new BookingPhaseRollover(bookingRepository, new SimpleMeterRegistry(), 1, 1);
+        persist(now.minusHours(5), now.minusHours(4), BookingPhase.CURRENT);
+        persist(now.minusHours(3), now.minusHours(2), BookingPhase.CURRENT);
+
+        rollover.rollover(now);
+
+        assertEquals(2 * 60 * 60, rollover.getLagSeconds());
+    }
+
+    private Booking persist(LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+        Booking booking = em.persist(new Booking(null, start, end, item, booker, null));
+        booking.setPhase(phase);
+        em.flush();
+        return booking;
+    }
+
+    private BookingPhase phase(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getPhase();
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the correlated last/next booking subqueries with the single window-function query.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=BookingLastNextBenchmarkTest}.
+ * Add {@code -Dbenchmark.postgres.url=jdbc:postgresql://host/db} (and {@code benchmark.postgres.user},
+ * {@code benchmark.postgres.password}) to compare PostgreSQL plan costs on a migrated schema; the seeded rows
+ * are rolled back.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingLastNextBenchmarkTest {
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 2000);
+    private static final int BOOKINGS_PER_ITEM = 6;
+    private static final int ROUNDS = 5;
+    private static final String CORRELATED = "select b.id from bookings b join items i on i.id = b.item_id " +
+            "where b.item_id in (:ids) and i.owner_id = :userId and b.start_time < :now " +
+            "and b.start_time in (select max(l.start_time) from bookings l " +
+            "where l.item_id = b.item_id and l.start_time < :now) " +
+            "union all " +
+            "select b.id from bookings b join items i on i.id = b.item_id " +
+            "where b.item_id in (:ids) and i.owner_id = :userId and b.start_time > :now " +
+            "and b.start_time in (select min(n.start_time) from bookings n " +
+            "where n.item_id = b.item_id and n.start_time > :now)";
+    private static final String WINDOWED = windowedSql();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void lastAndNextBookingsBenchmark() {
+        long ownerId = seed();
+        List<Long> ids = jdbcTemplate.queryForList("select id from items where owner_id = ?", Long.class, ownerId);
+        LocalDateTime now = LocalDateTime.now();
+
+        long t0 = System.nanoTime();
+        Set<Long> correlated = bookingIds(() -> correlatedLastAndNext(ids, now, ownerId));
+        Set<Long> windowed = bookingIds(() -> bookingRepository.findLastAndNextBookings(ids, now, ownerId));
+        assertEquals(correlated, windowed);
+
+        long correlatedNanos = measure(() -> correlatedLastAndNext(ids, now, ownerId));
+        long windowedNanos = measure(() -> bookingRepository.findLastAndNextBookings(ids, now, ownerId));
+        log.info("{} items, {} bookings: correlated subqueries {} ms, window function {} ms",
+                ITEMS, ITEMS * BOOKINGS_PER_ITEM, correlatedNanos / 1_000_000, windowedNanos / 1_000_000);
+        new NamedParameterJdbcTemplate(jdbcTemplate).queryForList("explain analyze " + WINDOWED,
+                        parameters(ids, now, ownerId), String.class)
+                .forEach(plan -> log.info("Window function plan: {}", plan));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+    void lastAndNextBookingsPostgresPlanCost() throws Exception {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.postgres.url"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", ""), true);
+        dataSource.setAutoCommit(false);
+        try {
+            JdbcTemplate postgres = new JdbcTemplate(dataSource);
+            long ownerId = seed(postgres);
+            postgres.execute("analyze items");
+            postgres.execute("analyze bookings");
+            List<Long> ids = postgres.queryForList("select id from items where owner_id = ?", Long.class, ownerId);
+            Map<String, Object> parameters = parameters(ids, LocalDateTime.now(), ownerId);
+
+            double correlated = planCost(postgres, CORRELATED, parameters);
+            double windowed = planCost(postgres, WINDOWED, parameters);
+
+            log.info("PostgreSQL, {} items, {} bookings: correlated subqueries cost {}, window function cost {}",
+                    ITEMS, ITEMS * BOOKINGS_PER_ITEM, correlated, windowed);
+            assertTrue(windowed < correlated, "window function cost " + windowed + " >= " + correlated);
+        } finally {
+            dataSource.getConnection().rollback();
+            dataSource.destroy();
+        }
+    }
+
+    private static double planCost(JdbcTemplate jdbcTemplate, String sql, Map<String, Object> parameters)
+            throws Exception {
+        String plan = new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject("explain (format json) " + sql,
+                parameters, String.class);
+        return new ObjectMapper().readTree(plan).get(0).get("Plan").get("Total Cost").asDouble();
+    }
+
+    private static Map<String, Object> parameters(List<Long> ids, LocalDateTime now, long ownerId) {
+        return Map.of("ids", ids, "now", Timestamp.valueOf(now), "userId", ownerId);
+    }
+
+    private long seed() {
+        return seed(jdbcTemplate);
+    }
+
+    private static long seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@bench.ru')");
+        jdbcTemplate.update("insert into users (name, email) values ('booker', 'booker@bench.ru')");
+        long ownerId = jdbcTemplate.queryForObject("select id from users where email = 'owner@bench.ru'", Long.class);
+        long bookerId = jdbcTemplate.queryForObject("select id from users where email = 'booker@bench.ru'", Long.class);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "description" + i, true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id) values (?, ?, ?, ?)",
+                items);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>();
+        jdbcTemplate.queryForList("select id from items where owner_id = ?", Long.class, ownerId).forEach(itemId -> {
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2L).plusMinutes(itemId % 60);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                        itemId, bookerId, "APPROVED", BookingPhase.of(start, start.plusHours(1), now).name()});
+            }
+        });
+        jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        return ownerId;
+    }
+
+    private static String windowedSql() {
+        try {
+            return BookingRepository.class.getMethod("findLastAndNextBookings", List.class, LocalDateTime.class,
+                    long.class).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Booking> correlatedLastAndNext(List<Long> ids, LocalDateTime now, long ownerId) {
+        List<Booking> result = new ArrayList<>(em.createQuery("select booking from Booking booking " +
+                        "where booking.item.id in :ids and booking.start < :now and booking.item.owner.id = :userId " +
+                        "and booking.start in (select max(b.start) from Booking b " +
+                        "where b.item.id = booking.item.id and b.start < :now)", Booking.class)
+                .setParameter("ids", ids).setParameter("now", now).setParameter("userId", ownerId)
+                .getResultList());
+        result.addAll(em.createQuery("select distinct booking from Booking booking " +
+                        "where booking.start > :now and booking.item.id in :ids and booking.item.owner.id = :userId " +
+                        "and booking.start in (select min(b.start) from Booking b " +
+                        "where b.item.id = booking.item.id and b.start > :now)", Booking.class)
+                .setParameter("ids", ids).setParameter("now", now).setParameter("userId", ownerId)
+                .getResultList());
+        return result;
+    }
+
+    private Set<Long> bookingIds(Supplier<List<Booking>> query) {
+        return query.get().stream().map(Booking::getId).collect(Collectors.toSet());
+    }
+
+    private long measure(Supplier<List<Booking>> query) {
+        query.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            em.clear();
+            long started = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return best;
+    }
+}
@@ -8,12 +8,19 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.booking.BookingPhase;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.search.BookingRole;
+import ru.practicum.shareit.booking.search.BookingSearch;
+import ru.practicum.shareit.booking.search.BookingState;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,142 +63,168 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdOrderByStartDescTest() {
+    void searchByBookerAllTest() {
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findAllByBookerIdOrderByStartDesc(user2.getId(), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.ALL,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));//id могут сбиться, проверить при запуске всех тестов
     }
 
     @Test
-    void findByBookerCurrentTest() {
+    void searchByBookerCurrentTest() {
+        booking.setEnd(LocalDateTime.now().plusHours(1));
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByBookerCurrent(user2.getId(), LocalDateTime.now().minusHours(2), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.CURRENT,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByBookerPastTest() {
+    void searchByBookerPastTest() {
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByBookerPast(user2.getId(), LocalDateTime.now().plusHours(2), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.PAST,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByBookerFutureTest() {
+    void searchByBookerFutureTest() {
+        booking.setStart(LocalDateTime.now().plusHours(1));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByBookerFuture(user2.getId(), LocalDateTime.now().minusHours(4), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.FUTURE,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByBookerAndStatusTest() {
+    void searchByBookerWaitingTest() {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByBookerAndStatus(user2.getId(), BookingStatus.WAITING, pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.WAITING,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findAllByOwnerIdOrderByStartDescTest() {
+    void searchByOwnerAllTest() {
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByItemOwnerIdOrderByStartDesc(user.getId(), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.OWNER, user.getId(), BookingState.ALL,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));//id могут сбиться, проверить при запуске всех тестов
     }
 
     @Test
-    void findByItemOwnerCurrentTest() {
+    void searchByOwnerCurrentTest() {
+        booking.setEnd(LocalDateTime.now().plusHours(1));
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByItemOwnerCurrent(user.getId(), LocalDateTime.now().minusHours(2), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.OWNER, user.getId(), BookingState.CURRENT,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByItemOwnerPastTest() {
+    void searchByOwnerPastTest() {
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByItemOwnerPast(user.getId(), LocalDateTime.now().plusHours(2), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.OWNER, user.getId(), BookingState.PAST,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByItemOwnerFutureTest() {
+    void searchByOwnerFutureTest() {
+        booking.setStart(LocalDateTime.now().plusHours(1));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByItemOwnerFuture(user.getId(), LocalDateTime.now().minusHours(4), pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.OWNER, user.getId(), BookingState.FUTURE,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
 
     @Test
-    void findByItemOwnerAndStatusTest() {
+    void searchByBookerWithoutPhaseTest() {
+        booking.setEnd(LocalDateTime.now().plusHours(1));
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+        em.flush();
+        em.getEntityManager().createNativeQuery("update bookings set phase = null").executeUpdate();
+        em.clear();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(1, bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.CURRENT,
+                now)).size());
+        assertEquals(1, bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.PAST,
+                now.plusHours(2))).size());
+        assertEquals(1, bookingRepository.search(search(BookingRole.BOOKER, user2.getId(), BookingState.FUTURE,
+                now.minusHours(4))).size());
+    }
+
+    @Test
+    void searchByOwnerWaitingTest() {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        PageRequest pg = PageRequest.of(0, 10);
 
-        List<Booking> bookingList = bookingRepository.findByItemOwnerAndStatus(user.getId(), BookingStatus.WAITING, pg);
+        List<Booking> bookingList = bookingRepository.search(search(BookingRole.OWNER, user.getId(), BookingState.WAITING,
+                LocalDateTime.now()));
 
         assertEquals(1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
@@ -210,38 +243,196 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findBookingsLastTest() {
+    void searchByBookerAfterCursorTest() {
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.SECONDS));
+        Booking earlier = new Booking(null, booking.getStart().minusHours(1), booking.getEnd().minusHours(1),
+                item, user2, null);
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+        em.persist(earlier);
+
+        List<Booking> bookingList = bookingRepository.search(BookingSearch.builder()
+                .role(BookingRole.BOOKER)
+                .userId(user2.getId())
+                .after(new KeysetCursor(booking.getStart(), booking.getId()))
+                .page(PageRequest.of(0, 10))
+                .build());
+
+        assertEquals(1, bookingList.size());
+        assertEquals(earlier, bookingList.get(0));
+    }
+
+    @Test
+    void findByItemIdAndStatusInTest() {
+        booking.setStatus(BookingStatus.WAITING);
         em.persist(user);
         em.persist(user2);
         em.persist(item);
         em.persist(booking);
-        Booking booking1 = booking;
-        booking1.setEnd(LocalDateTime.now().minusHours(6));
-        booking1.setStart(LocalDateTime.now().minusHours(5));
-        em.persist(booking1);
 
-        List<Booking> res = bookingRepository.findBookingsLast(List.of(item.getId()), LocalDateTime.now(), user.getId());
+        List<Booking> res = bookingRepository.findByItemIdAndStatusIn(item.getId(), LocalDateTime.now().minusHours(2),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+        List<Booking> finished = bookingRepository.findByItemIdAndStatusIn(item.getId(), LocalDateTime.now(),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED));
 
         assertEquals(1, res.size());
         assertEquals(booking, res.get(0));
+        assertTrue(finished.isEmpty());
     }
 
     @Test
-    void findBookingsNextTest() {
+    void findLastAndNextBookingsTest() {
         em.persist(user);
         em.persist(user2);
         em.persist(item);
-        booking.setEnd(LocalDateTime.now().plusHours(7));
-        booking.setStart(LocalDateTime.now().plusHours(6));
         em.persist(booking);
-        Booking booking1 = booking;
-        booking1.setEnd(LocalDateTime.now().plusHours(4));
-        booking1.setStart(LocalDateTime.now().plusHours(3));
-        em.persist(booking1);
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = new Booking(null, now.minusHours(6), now.minusHours(5), item, user2, null);
+        Booking next = new Booking(null, now.plusHours(3), now.plusHours(4), item, user2, null);
+        Booking later = new Booking(null, now.plusHours(6), now.plusHours(7), item, user2, null);
+        em.persist(older);
+        em.persist(next);
+        em.persist(later);
+
+        List<Booking> res = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now, user.getId());
+
+        assertEquals(2, res.size());
+        assertTrue(res.contains(booking));
+        assertTrue(res.contains(next));
+    }
 
-        List<Booking> res = bookingRepository.findBookingsNext(List.of(item.getId()), LocalDateTime.now(), user.getId());
+    @Test
+    void findLastAndNextBookings_whenBookingStartsNow_thenFollowingBookingIsNext() {
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking startingNow = new Booking(null, now, now.plusHours(1), item, user2, null);
+        Booking next = new Booking(null, now.plusHours(3), now.plusHours(4), item, user2, null);
+        em.persist(startingNow);
+        em.persist(next);
+
+        List<Booking> res = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now, user.getId());
+
+        assertEquals(2, res.size());
+        assertTrue(res.contains(booking));
+        assertTrue(res.contains(next));
+        List<Booking> unscoped = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+        assertEquals(2, unscoped.size());
+        assertTrue(unscoped.containsAll(res));
+    }
 
-        assertEquals(1, res.size());
-        assertEquals(booking1, res.get(0));
+    @Test
+    void findLastAndNextBookingsForeignOwnerTest() {
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+
+        List<Booking> res = bookingRepository.findLastAndNextBookings(List.of(item.getId()), LocalDateTime.now(),
+                user2.getId());
+
+        assertTrue(res.isEmpty());
+    }
+
+    @Test
+    void searchSeveralStatesWithItemFilterTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Item other = new Item(null, "other", "description", true, user, null);
+        Booking future = new Booking(null, now.plusHours(1), now.plusHours(2), item, user2, BookingStatus.APPROVED);
+        Booking rejected = new Booking(null, now.minusHours(6), now.minusHours(5), item, user2, BookingStatus.REJECTED);
+        Booking foreign = new Booking(null, now.plusHours(1), now.plusHours(2), other, user2, BookingStatus.APPROVED);
+        booking.setStatus(BookingStatus.APPROVED);
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(other);
+        em.persist(booking);
+        em.persist(future);
+        em.persist(rejected);
+        em.persist(foreign);
+
+        List<Booking> bookingList = bookingRepository.search(BookingSearch.builder()
+                .role(BookingRole.OWNER)
+                .userId(user.getId())
+                .states(EnumSet.of(BookingState.FUTURE, BookingState.REJECTED))
+                .itemId(item.getId())
+                .page(PageRequest.of(0, 10))
+                .now(now)
+                .build());
+
+        assertEquals(List.of(future, rejected), bookingList);
+    }
+
+    @Test
+    void searchDateWindowTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking later = new Booking(null, now.plusDays(3), now.plusDays(4), item, user2, null);
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+        em.persist(later);
+
+        List<Booking> bookingList = bookingRepository.search(BookingSearch.builder()
+                .role(BookingRole.BOOKER)
+                .userId(user2.getId())
+                .rangeStart(now.plusDays(1))
+                .rangeEnd(now.plusDays(5))
+                .page(PageRequest.of(0, 10))
+                .build());
+
+        assertEquals(List.of(later), bookingList);
+    }
+
+    @Test
+    void searchCurrentWhenPhaseLagsTest() {
+        booking.setEnd(LocalDateTime.now().plusHours(1));
+        booking.setPhase(BookingPhase.FUTURE);
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+
+        List<Booking> current = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(),
+                BookingState.CURRENT, LocalDateTime.now()));
+        List<Booking> future = bookingRepository.search(search(BookingRole.BOOKER, user2.getId(),
+                BookingState.FUTURE, LocalDateTime.now()));
+
+        assertEquals(List.of(booking), current);
+        assertTrue(future.isEmpty());
+    }
+
+    @Test
+    void updateStatusTest() {
+        booking.setStatus(BookingStatus.WAITING);
+        em.persist(user);
+        em.persist(user2);
+        em.persist(item);
+        em.persist(booking);
+
+        int stale = bookingRepository.updateStatus(BookingStatus.APPROVED, List.of(booking.getId()), 1L);
+        int updated = bookingRepository.updateStatus(BookingStatus.APPROVED, List.of(booking.getId()), 0L);
+
+        assertEquals(0, stale);
+        assertEquals(1, updated);
+        assertEquals(List.of(booking.getId()), bookingRepository.findIdsByStatusAndVersion(List.of(booking.getId()),
+                BookingStatus.APPROVED, 1L));
+        Booking reloaded = bookingRepository.findWithItemByIdIn(List.of(booking.getId())).get(0);
+        assertEquals(BookingStatus.APPROVED, reloaded.getStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    private BookingSearch search(BookingRole role, long userId, BookingState state, LocalDateTime now) {
+        return BookingSearch.builder()
+                .role(role)
+                .userId(userId)
+                .states(EnumSet.of(state))
+                .page(PageRequest.of(0, 10))
+                .now(now)
+                .build();
     }
-}
\ No newline at end of file
+}
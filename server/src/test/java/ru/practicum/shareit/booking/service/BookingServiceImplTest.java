@@ -1,31 +1,45 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingChangeOutcome;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemCalendarCache;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeResult;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.strategy.searchByBooker.*;
-import ru.practicum.shareit.booking.strategy.searchByOwner.*;
+import ru.practicum.shareit.booking.search.BookingRole;
+import ru.practicum.shareit.booking.search.BookingSearch;
+import ru.practicum.shareit.booking.search.BookingState;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.stats.ItemStatsUpdater;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,24 +48,19 @@ class BookingServiceImplTest {
     BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
     ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
 
-    List<BookingSearchByBooker> bookingSearchesByBooker = List.of(
-            new AllBookingSearchByBooker(bookingRepository),
-            new CurrentBookingSearchByBooker(bookingRepository),
-            new PastBookingSearchByBooker(bookingRepository),
-            new FutureBookingSearchByBooker(bookingRepository),
-            new WaitingBookingSearchByBooker(bookingRepository),
-            new RejectedBookingSearchByBooker(bookingRepository));
-
-    List<BookingSearchByOwner> bookingSearchesByOwner = List.of(
-            new AllBookingSearchByOwner(bookingRepository),
-            new CurrentBookingSearchByOwner(bookingRepository),
-            new PastBookingSearchByOwner(bookingRepository),
-            new FutureBookingSearchByOwner(bookingRepository),
-            new WaitingBookingSearchByOwner(bookingRepository),
-            new RejectedBookingSearchByOwner(bookingRepository));
-
-    BookingServiceImpl bookingServiceImpl = new BookingServiceImpl(userRepository, bookingRepository, itemRepository,
-            bookingSearchesByBooker, bookingSearchesByOwner);
+    BookingAvailabilityIndex availabilityIndex = new BookingAvailabilityIndex(bookingRepository, 10000);
+
+    ItemCalendarCache itemCalendars = new ItemCalendarCache(bookingRepository, new SimpleMeterRegistry(), 10000);
+
+    ItemViewCache itemViews = new ItemViewCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    ItemStatsUpdater itemStats = Mockito.mock(ItemStatsUpdater.class);
+
+    ExistenceService existence = new ExistenceService(userRepository, itemRepository, null,
+            new SimpleMeterRegistry(), false);
+
+    BookingServiceImpl bookingServiceImpl = new BookingServiceImpl(userRepository, existence, bookingRepository,
+            itemRepository, availabilityIndex, itemCalendars, itemViews, itemStats);
 
     BookingDto bookingDto = new BookingDto(
             1L,
@@ -81,7 +90,7 @@ class BookingServiceImplTest {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
         BookingDto bDto = BookingMapper.toBookingDto(booking);
         BookingDtoResponse forCheck = BookingMapper.toBookingDtoResponse(booking);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
         when(bookingRepository.save(any())).thenReturn(booking);
 
@@ -91,9 +100,168 @@ class BookingServiceImplTest {
         verify(bookingRepository).save(any());
     }
 
+    @Test
+    void create_whenDatesOverlapExistingBooking_thenExceptionThrown() {
+        Booking existing = BookingMapper.toBooking(bookingDto, item, user2);
+        existing.setStatus(BookingStatus.APPROVED);
+        BookingDto overlapping = new BookingDto(null,
+                bookingDto.getStart().plusMinutes(30),
+                bookingDto.getEnd().plusMinutes(30),
+                1L,
+                2L,
+                null);
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(List.of(existing));
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.create(2L, overlapping));
+        assertEquals("Item already booked for these dates", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void create_whenPreviousBookingRejected_thenSlotFreed() {
+        Booking waiting = BookingMapper.toBooking(bookingDto, item, user2);
+        waiting.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), any(), any())).thenReturn(List.of(waiting));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(waiting));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        assertFalse(availabilityIndex.isFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+
+        bookingServiceImpl.changeStatus(user.getId(), waiting.getId(), false);
+
+        assertTrue(availabilityIndex.isFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+    }
+
+    @Test
+    void changeStatuses_whenAllUpdated_thenReturnNewVersions() {
+        Booking first = waitingBooking(1L, 0L);
+        Booking second = waitingBooking(2L, 0L);
+        when(bookingRepository.findWithItemByIdIn(any())).thenReturn(List.of(first, second));
+        when(bookingRepository.updateStatus(any(), any(), anyLong())).thenReturn(1);
+
+        List<BookingStatusChangeResult> results = bookingServiceImpl.changeStatuses(user.getId(), List.of(
+                new BookingStatusChangeDto(1L, true, null),
+                new BookingStatusChangeDto(2L, false, 0L)));
+
+        assertEquals(List.of(
+                new BookingStatusChangeResult(1L, BookingChangeOutcome.UPDATED, BookingStatus.APPROVED, 1L),
+                new BookingStatusChangeResult(2L, BookingChangeOutcome.UPDATED, BookingStatus.REJECTED, 1L)),
+                results);
+        verify(bookingRepository).updateStatus(BookingStatus.APPROVED, List.of(1L), 0L);
+        verify(bookingRepository).updateStatus(BookingStatus.REJECTED, List.of(2L), 0L);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void changeStatuses_whenUpdated_thenItemViewInvalidated() {
+        Booking first = waitingBooking(1L, 0L);
+        long itemId = first.getItem().getId();
+        when(bookingRepository.findWithItemByIdIn(any())).thenReturn(List.of(first));
+        when(bookingRepository.updateStatus(any(), any(), anyLong())).thenReturn(1);
+        List<Long> loads = new ArrayList<>();
+        itemViews.get(itemId, user.getId(), () -> load(loads, itemId));
+        itemViews.get(itemId, user.getId(), () -> load(loads, itemId));
+
+        bookingServiceImpl.changeStatuses(user.getId(), List.of(new BookingStatusChangeDto(1L, true, null)));
+        itemViews.get(itemId, user.getId(), () -> load(loads, itemId));
+
+        assertEquals(2, loads.size());
+        verify(itemStats).itemsChanged(Set.of(itemId));
+    }
+
+    @Test
+    void changeStatuses_whenRowChangedConcurrently_thenOnlyItConflicts() {
+        Booking first = waitingBooking(1L, 0L);
+        Booking second = waitingBooking(2L, 0L);
+        when(bookingRepository.findWithItemByIdIn(any())).thenReturn(List.of(first, second));
+        when(bookingRepository.updateStatus(any(), any(), anyLong())).thenReturn(1);
+        when(bookingRepository.findIdsByStatusAndVersion(any(), any(), anyLong())).thenReturn(List.of(2L));
+
+        List<BookingStatusChangeResult> results = bookingServiceImpl.changeStatuses(user.getId(), List.of(
+                new BookingStatusChangeDto(1L, true, null),
+                new BookingStatusChangeDto(2L, true, null)));
+
+        assertEquals(BookingChangeOutcome.CONFLICT, results.get(0).getOutcome());
+        assertEquals(BookingStatus.WAITING, results.get(0).getStatus());
+        assertEquals(BookingChangeOutcome.UPDATED, results.get(1).getOutcome());
+        verify(bookingRepository).findIdsByStatusAndVersion(List.of(1L, 2L), BookingStatus.APPROVED, 1L);
+    }
+
+    @Test
+    void changeStatuses_whenChecksFail_thenOutcomePerBooking() {
+        Booking approved = waitingBooking(1L, 0L);
+        approved.setStatus(BookingStatus.APPROVED);
+        Booking stale = waitingBooking(2L, 4L);
+        Item foreignItem = new Item(2L, "name", "description", true, user2, null);
+        Booking foreign = new Booking(3L, bookingDto.getStart(), bookingDto.getEnd(), foreignItem, user,
+                BookingStatus.WAITING, 0L);
+        when(bookingRepository.findWithItemByIdIn(any())).thenReturn(List.of(approved, stale, foreign));
+
+        List<BookingStatusChangeResult> results = bookingServiceImpl.changeStatuses(user.getId(), List.of(
+                new BookingStatusChangeDto(1L, false, null),
+                new BookingStatusChangeDto(2L, true, 3L),
+                new BookingStatusChangeDto(3L, true, null),
+                new BookingStatusChangeDto(4L, true, null)));
+
+        assertEquals(List.of(
+                new BookingStatusChangeResult(1L, BookingChangeOutcome.ALREADY_APPROVED, BookingStatus.APPROVED, 0L),
+                new BookingStatusChangeResult(2L, BookingChangeOutcome.CONFLICT, BookingStatus.WAITING, 4L),
+                new BookingStatusChangeResult(3L, BookingChangeOutcome.ACCESS_DENIED, null, null),
+                new BookingStatusChangeResult(4L, BookingChangeOutcome.NOT_FOUND, null, null)),
+                results);
+        verify(bookingRepository, never()).updateStatus(any(), any(), anyLong());
+    }
+
+    @Test
+    void changeStatuses_whenDecisionMissing_thenExceptionThrown() {
+        List<BookingStatusChangeDto> changes = List.of(new BookingStatusChangeDto(1L, null, null));
+
+        assertThrows(BadRequestException.class, () -> bookingServiceImpl.changeStatuses(user.getId(), changes));
+        verify(bookingRepository, never()).findWithItemByIdIn(any());
+    }
+
+    @Test
+    void createAll_whenAllIsOk_thenBookingsSavedWithOneItemLookup() {
+        BookingDto second = new BookingDto(7L, bookingDto.getEnd().plusHours(1), bookingDto.getEnd().plusHours(2),
+                1L, 2L, null);
+        long[] ids = {10L};
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user2);
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(ids[0]++);
+            return booking;
+        });
+
+        List<BookingDto> created = bookingServiceImpl.createAll(2L, List.of(bookingDto, second));
+
+        assertEquals(2, created.size());
+        assertEquals(BookingStatus.WAITING, created.get(1).getStatus());
+        assertNull(second.getId());
+        verify(itemRepository, times(1)).findAllById(Set.of(1L));
+        verify(bookingRepository, times(1)).findByItemIdInAndStatusIn(any(), any(), any());
+        verify(bookingRepository, never()).findByItemIdAndStatusIn(anyLong(), any(), any());
+        verify(bookingRepository, times(2)).save(any());
+    }
+
+    @Test
+    void createAll_whenItemNotFound_thenExceptionThrown() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user2);
+        when(itemRepository.findAllById(any())).thenReturn(List.of());
+
+        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
+                () -> bookingServiceImpl.createAll(2L, List.of(bookingDto)));
+        assertEquals("Item 1 not found", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void create_whenItemNotFound_thenExceptionThrown() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.empty());
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
                 () -> bookingServiceImpl.create(1L, bookingDto));
@@ -102,7 +270,7 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenUserNotFound_thenExceptionThrown() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
@@ -112,7 +280,7 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenOwnerTryingToBookHisItem_thenExceptionThrown() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
@@ -127,7 +295,7 @@ class BookingServiceImplTest {
         itemTest.setAvailable(false);
         bookingDto.setItemId(49L);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findWithOwnerAndRequestById(anyLong())).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
 
         BadRequestException ex = assertThrows(BadRequestException.class,
@@ -223,161 +391,201 @@ class BookingServiceImplTest {
 
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
         PageRequest p = PageRequest.of(0, 20);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "ALL", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findAllByBookerIdOrderByStartDesc(anyLong(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.ALL))));
     }
 
     @Test
     void getByBooker_whenBookerCurrentState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerCurrent(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "CURRENT", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerCurrent(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.CURRENT))));
     }
 
     @Test
     void getByBooker_whenBookerPastState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerPast(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "PAST", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerPast(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.PAST))));
     }
 
     @Test
     void getByBooker_whenBookerFutureState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerFuture(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "FUTURE", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerFuture(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.FUTURE))));
     }
 
     @Test
     void getByBooker_whenBookerWaitingStatus_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerAndStatus(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "WAITING", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerAndStatus(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.WAITING))));
     }
 
     @Test
     void getByBooker_whenBookerRejectedStatus_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerAndStatus(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByBooker(user.getId(), "REJECTED", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerAndStatus(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.BOOKER
+                && search.getStates().equals(EnumSet.of(BookingState.REJECTED))));
     }
 
     @Test
     void getByOwner_whenBookerAllState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerIdOrderByStartDesc(anyLong(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "ALL", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerIdOrderByStartDesc(anyLong(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.ALL))));
     }
 
     @Test
     void getByOwner_whenBookerCurrentState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerCurrent(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "CURRENT", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerCurrent(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.CURRENT))));
     }
 
     @Test
     void getByOwner_whenBookerPastState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerPast(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "PAST", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerPast(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.PAST))));
     }
 
     @Test
     void getByOwner_whenBookerFutureState_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerFuture(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "FUTURE", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerFuture(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.FUTURE))));
     }
 
     @Test
     void getByOwner_whenBookerWaitingStatus_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "WAITING", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerAndStatus(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.WAITING))));
     }
 
     @Test
     void getByOwner_whenBookerRejectedStatus_thenReturnBooking() {
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(), any())).thenReturn(Collections.singletonList(booking));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
 
         PageRequest p = PageRequest.of(0, 20);
         List<BookingDtoResponse> resp = bookingServiceImpl.getByOwner(user.getId(), "REJECTED", p);
         assertFalse(resp.isEmpty());
         assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerAndStatus(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).search(argThat(search -> search.getRole() == BookingRole.OWNER
+                && search.getStates().equals(EnumSet.of(BookingState.REJECTED))));
+    }
+
+    @Test
+    void search_whenSeveralStatesAndFilters_thenPassedToRepository() {
+        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
+        KeysetCursor after = new KeysetCursor(LocalDateTime.now(), 10L);
+        BookingSearch search = BookingSearch.builder()
+                .role(BookingRole.OWNER)
+                .userId(user.getId())
+                .states(BookingState.parse("WAITING,FUTURE"))
+                .itemId(item.getId())
+                .after(after)
+                .page(PageRequest.of(0, 20))
+                .build();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.search(any())).thenReturn(Collections.singletonList(booking));
+
+        List<BookingDtoResponse> resp = bookingServiceImpl.search(search);
+        assertEquals(1, resp.size());
+        verify(bookingRepository).search(search);
+    }
+
+    @Test
+    void getByBooker_whenUnknownState_thenExceptionThrown() {
+        PageRequest p = PageRequest.of(0, 20);
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.getByBooker(user.getId(), "ALL,UNKNOWN", p));
+        assertEquals("Unknown state: ALL,UNKNOWN", ex.getMessage());
     }
 
     @Test
     void getByBooker_whenBookerNotFound_thenExceptionThrown() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         PageRequest p = PageRequest.of(0, 20);
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
@@ -387,11 +595,21 @@ class BookingServiceImplTest {
 
     @Test
     void getByOwner_whenBookerNotFound_thenExceptionThrown() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         PageRequest p = PageRequest.of(0, 20);
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
                 () -> bookingServiceImpl.getByOwner(user.getId(), "ALL", p));
         assertEquals("Owner not found", ex.getMessage());
     }
-}
\ No newline at end of file
+
+    private Booking waitingBooking(long id, long version) {
+        return new Booking(id, bookingDto.getStart(), bookingDto.getEnd(), item, user2, BookingStatus.WAITING, version);
+    }
+
+    private ItemViewCache.Loaded load(List<Long> loads, long itemId) {
+        loads.add(itemId);
+        return new ItemViewCache.Loaded(user.getId(), new ItemDtoBooking(itemId, "name", "description", true,
+                null, null, new ArrayList<>(), 0L, null));
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    LruCache<Long, String> cache = new LruCache<>(meterRegistry, "test", 2);
+
+    @Test
+    void put_whenFull_thenLeastRecentlyUsedEvicted() {
+        cache.put(1L, "first", cache.generation());
+        cache.put(2L, "second", cache.generation());
+        cache.get(1L);
+
+        cache.put(3L, "third", cache.generation());
+
+        assertEquals("first", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("third", cache.get(3L));
+        assertEquals(1, meterRegistry.get("cache.evictions").tag("cache", "test").counter().count());
+        assertEquals(2, meterRegistry.get("cache.size").tag("cache", "test").gauge().value());
+    }
+
+    @Test
+    void put_whenRemovedSinceLoad_thenValueDropped() {
+        long loadedAt = cache.generation();
+        cache.remove(1L);
+
+        assertFalse(cache.put(1L, "stale", loadedAt));
+        assertNull(cache.get(1L));
+        assertTrue(cache.put(1L, "fresh", cache.generation()));
+        assertTrue(cache.remove(1L));
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.existence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExistenceServiceTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExistenceService existence = new ExistenceService(userRepository, itemRepository, null,
+            meterRegistry, true);
+
+    @Test
+    void userExists_whenCreated_thenAnsweredWithoutDatabase() {
+        existence.userCreated(1L);
+
+        assertTrue(existence.userExists(1L));
+        verify(userRepository, never()).existsById(anyLong());
+        assertEquals(1, checks("user", "hit"));
+    }
+
+    @Test
+    void userExists_whenUnknown_thenDatabaseAskedAndPositiveRemembered() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertTrue(existence.userExists(2L));
+        assertTrue(existence.userExists(2L));
+
+        verify(userRepository, times(1)).existsById(2L);
+        assertEquals(1, checks("user", "fallback"));
+    }
+
+    @Test
+    void requireUser_whenDeleted_thenNotFound() {
+        existence.userCreated(3L);
+        existence.userDeleted(3L);
+
+        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
+                () -> existence.requireUser(3L, "Booker not found"));
+        assertEquals("Booker not found", ex.getMessage());
+        assertEquals(1, checks("user", "missing"));
+    }
+
+    @Test
+    void requireUser_whenFallbackRunsBeforeDeleteCommits_thenBitNotRestored() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            existence.userDeleted(5L);
+            when(userRepository.existsById(5L)).thenReturn(true);
+
+            assertTrue(existence.userExists(5L));
+
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(userRepository.existsById(5L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> existence.requireUser(5L, "User not found"));
+    }
+
+    @Test
+    void requireUser_whenDeleteCommitsDuringFallback_thenStalePositiveNotCached() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            existence.userDeleted(6L);
+            when(userRepository.existsById(6L)).thenAnswer(invocation -> {
+                complete(TransactionSynchronization.STATUS_COMMITTED);
+                return true;
+            });
+
+            assertTrue(existence.userExists(6L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        doReturn(false).when(userRepository).existsById(6L);
+
+        assertFalse(existence.userExists(6L));
+    }
+
+    @Test
+    void userDeleted_whenRolledBack_thenBitKept() {
+        existence.userCreated(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            existence.userDeleted(7L);
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(existence.userExists(7L));
+        verify(userRepository, never()).existsById(7L);
+    }
+
+    @Test
+    void requireItem_whenDisabled_thenAlwaysDatabase() {
+        ExistenceService disabled = new ExistenceService(userRepository, itemRepository, null, meterRegistry, false);
+        when(itemRepository.existsById(4L)).thenReturn(true);
+        disabled.itemCreated(4L);
+
+        disabled.requireItem(4L, "Item not found");
+        disabled.requireItem(4L, "Item not found");
+
+        verify(itemRepository, times(2)).existsById(4L);
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private double checks(String entity, String result) {
+        return meterRegistry.get("existence.checks").tag("entity", entity).tag("result", result).counter().count();
+    }
+}
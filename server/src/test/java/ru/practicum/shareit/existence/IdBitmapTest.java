@@ -0,0 +1,40 @@
+package ru.practicum.shareit.existence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBitmapTest {
+    @Test
+    void add_whenIdsSparse_thenOnlyTouchedPagesAllocated() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(1);
+        bitmap.add(63);
+        bitmap.add(64);
+        bitmap.add(5_000_000_000L);
+
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(63));
+        assertTrue(bitmap.contains(64));
+        assertTrue(bitmap.contains(5_000_000_000L));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(65_537));
+        assertFalse(bitmap.contains(-1));
+        assertEquals(4, bitmap.cardinality());
+        assertEquals(2, bitmap.pageCount());
+    }
+
+    @Test
+    void remove_whenIdPresent_thenNeighboursKept() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(10);
+        bitmap.add(11);
+
+        bitmap.remove(10);
+        bitmap.remove(1_000_000);
+
+        assertFalse(bitmap.contains(10));
+        assertTrue(bitmap.contains(11));
+        assertEquals(1, bitmap.cardinality());
+    }
+}
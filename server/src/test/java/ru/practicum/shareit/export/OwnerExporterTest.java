@@ -0,0 +1,101 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.export.fetch-size=2")
+@AutoConfigureTestDatabase
+class OwnerExporterTest {
+    @Autowired
+    private OwnerExporter exporter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void seed() {
+        ownerId = insertUser("owner");
+        bookerId = insertUser("booker");
+        long otherId = insertUser("other");
+        insertItem("Дрель", "Простая, \"ударная\" дрель", ownerId);
+        insertItem("Пила", "Пила", ownerId);
+        insertItem("Молоток", "Молоток", otherId);
+        itemId = jdbcTemplate.queryForObject("select min(id) from items", Long.class);
+        jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status, phase) " +
+                        "values (?, ?, ?, ?, 'APPROVED', 'FUTURE')", Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0)),
+                Timestamp.valueOf(LocalDateTime.of(2030, 1, 2, 10, 0)), itemId, bookerId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void exportItems_whenCsv_thenOwnItemsEscaped() throws IOException {
+        String csv = export(exporter.exportItems(ownerId, ExportFormat.CSV));
+
+        assertEquals("id,name,description,available,requestId\r\n" +
+                itemId + ",Дрель,\"Простая, \"\"ударная\"\" дрель\",true,\r\n" +
+                (itemId + 1) + ",Пила,Пила,true,\r\n", csv);
+    }
+
+    @Test
+    void exportBookings_whenJson_thenArrayOfRows() throws IOException {
+        JsonNode bookings = objectMapper.readTree(export(exporter.exportBookings(ownerId, ExportFormat.JSON)));
+
+        assertEquals(1, bookings.size());
+        assertEquals(itemId, bookings.get(0).get("itemId").asLong());
+        assertEquals("Дрель", bookings.get(0).get("itemName").asText());
+        assertEquals(bookerId, bookings.get(0).get("bookerId").asLong());
+        assertEquals("2030-01-01T10:00", bookings.get(0).get("start").asText());
+        assertEquals("APPROVED", bookings.get(0).get("status").asText());
+    }
+
+    @Test
+    void exportItems_whenUserNotFound_thenThrows() {
+        assertThrows(ObjectNotFoundException.class, () -> exporter.exportItems(-1L, ExportFormat.CSV));
+    }
+
+    private String export(StreamingResponseBody body)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private long insertUser(String name) {
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name, name + "@email.ru");
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, name + "@email.ru");
+    }
+
+    private void insertItem(String name, String description, long owner) {
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) values (?, ?, true, ?)",
+                name, description, owner);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "shareit.export.fetch-size=2")
+@AutoConfigureTestDatabase
+class UserExporterTest {
+    @Autowired
+    private UserExporter exporter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void streamUsers_whenMoreUsersThanFetchSize_thenAllWrittenInIdOrder() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("insert into users (name, email) values (?, ?)", "user" + i, "user" + i + "@email.ru");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.streamUsers().writeTo(out);
+
+        JsonNode users = objectMapper.readTree(out.toByteArray());
+        assertEquals(5, users.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("user" + i, users.get(i).get("name").asText());
+            assertEquals("user" + i + "@email.ru", users.get(i).get("email").asText());
+        }
+        assertEquals(users.get(0).get("id").asLong() + 4, users.get(4).get("id").asLong());
+    }
+
+    @Test
+    void streamUsers_whenNoUsers_thenEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.streamUsers().writeTo(out);
+
+        assertEquals("[]", out.toString());
+    }
+}
@@ -8,24 +8,41 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.OwnerExporter;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.io.BufferedReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -35,6 +52,10 @@ class ItemControllerTest {
     private final MockMvc mvc;
     @MockBean
     ItemService itemService;
+    @MockBean
+    ItemImporter itemImporter;
+    @MockBean
+    OwnerExporter ownerExporter;
 
     private final UserDto userDto = new UserDto(
             1L,
@@ -143,6 +164,107 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description").value("description"));
     }
 
+    @Test
+    void fuzzySearchItemTest() throws Exception {
+        when(itemService.fuzzySearchItem(eq("дрел"), any())).thenReturn(Collections.singletonList(itemDto));
+
+        mvc.perform(get("/items/search?text=дрел&fuzzy=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+        verify(itemService, never()).searchItem(anyString(), any());
+    }
+
+    @Test
+    void suggestTest() throws Exception {
+        when(itemService.suggest("дре", 5)).thenReturn(List.of("Дрель", "Дрезина"));
+
+        mvc.perform(get("/items/suggest?prefix=дре&size=5")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Дрель"))
+                .andExpect(jsonPath("$[1]").value("Дрезина"));
+    }
+
+    @Test
+    void getCommentsTest() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2023, 1, 1, 12, 0);
+        CommentPageDto page = new CommentPageDto(List.of(new CommentDto(3L, "second", "name", created),
+                new CommentDto(2L, "first", "name", created.minusHours(1))), 5);
+        when(itemService.getComments(1L, null, 2)).thenReturn(page);
+
+        mvc.perform(get("/items/1/comments?size=2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "5"))
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(created.minusHours(1), 2L).encode()))
+                .andExpect(jsonPath("$[0].id").value(3L))
+                .andExpect(jsonPath("$[1].text").value("first"));
+    }
+
+    @Test
+    void getComments_whenLastPage_thenNoCursor() throws Exception {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2023, 1, 1, 12, 0), 2L);
+        when(itemService.getComments(eq(1L), any(), eq(20))).thenReturn(new CommentPageDto(List.of(), 2));
+
+        mvc.perform(get("/items/1/comments?after=" + after.encode())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "2"))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void importItemsTest() throws Exception {
+        doAnswer(invocation -> {
+            BufferedReader reader = invocation.getArgument(1);
+            Writer results = invocation.getArgument(2);
+            assertEquals("{\"name\":\"Дрель\"}", reader.readLine());
+            results.write("{\"line\":1,\"id\":7}\n");
+            return null;
+        }).when(itemImporter).importItems(eq(1L), any(), any());
+
+        mvc.perform(post("/items/import")
+                        .contentType(ItemController.NDJSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("{\"name\":\"Дрель\"}\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ItemController.NDJSON))
+                .andExpect(content().string("{\"line\":1,\"id\":7}\n"));
+    }
+
+    @Test
+    void exportTest() throws Exception {
+        when(ownerExporter.exportItems(1L, ExportFormat.JSON))
+                .thenReturn(out -> out.write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/items/export?format=json")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"items.json\""))
+                .andExpect(content().string("[{\"id\":1}]"));
+    }
+
+    @Test
+    void exportUnknownFormatTest() throws Exception {
+        mvc.perform(get("/items/export?format=xml")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(ownerExporter, never()).exportItems(anyLong(), any());
+    }
+
     @Test
     void addCommentTest() throws Exception {
         User user = new User(
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:enrichment",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "shareit.item.enrichment.threads=4",
+        "shareit.item.stats.enabled=false"})
+@AutoConfigureMockMvc
+class ItemEnrichmentConcurrencyTest {
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@email.ru')");
+        jdbcTemplate.update("insert into users (name, email) values ('booker', 'booker@email.ru')");
+        ownerId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        long bookerId = ownerId + 1;
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("insert into items (name, description, is_available, owner_id) values (?, ?, true, ?)",
+                    "item" + i, "description" + i, ownerId);
+            long itemId = jdbcTemplate.queryForObject("select max(id) from items", Long.class);
+            jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status, phase) " +
+                    "values (?, ?, ?, ?, 'APPROVED', 'PAST')", Timestamp.valueOf(now.minusDays(2)),
+                    Timestamp.valueOf(now.minusDays(1)), itemId, bookerId);
+            jdbcTemplate.update("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                    "comment", itemId, bookerId, Timestamp.valueOf(now));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void ownerItems_whenCallersExceedConnectionPool_thenAllServed() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Callable<Integer>> requests = new ArrayList<>();
+            for (int i = 0; i < CALLERS * 4; i++) {
+                requests.add(() -> mvc.perform(get("/items").header("X-Sharer-User-Id", ownerId))
+                        .andReturn().getResponse().getStatus());
+            }
+            for (Future<Integer> status : callers.invokeAll(requests, 60, TimeUnit.SECONDS)) {
+                assertEquals(200, status.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -6,12 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -58,4 +60,45 @@ class CommentRepositoryTest {
         assertEquals(comment, comments.get(0));
     }
 
+    @Test
+    void findLatestComments() {
+        Item other = new Item(null, "name2", "description second", true, user, null);
+        em.persist(user);
+        em.persist(item);
+        em.persist(other);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Comment(null, "comment " + i, item, user, now.plusMinutes(i)));
+        }
+        em.persist(new Comment(null, "other", other, user, now));
+        em.flush();
+
+        List<LatestComment> latest = commentRepository.findLatestComments(List.of(item.getId(), other.getId()), 2);
+
+        assertEquals(3, latest.size());
+        assertEquals(List.of("comment 3", "comment 2"), List.of(latest.get(0).getText(), latest.get(1).getText()));
+        assertEquals("user", latest.get(0).getAuthorName());
+        assertEquals(other.getId(), latest.get(2).getItemId());
+    }
+
+    @Test
+    void findPageAfter() {
+        em.persist(user);
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Comment(null, "comment " + i, item, user, now.plusMinutes(i / 2)));
+        }
+        em.flush();
+
+        List<Comment> first = commentRepository.findByItemIdOrderByCreatedDescIdDesc(item.getId(),
+                PageRequest.of(0, 2));
+        Comment last = first.get(1);
+        List<Comment> second = commentRepository.findPageAfter(item.getId(), last.getCreated(), last.getId(),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of("comment 4", "comment 3"), List.of(first.get(0).getText(), last.getText()));
+        assertEquals(List.of("comment 2", "comment 1"), List.of(second.get(0).getText(), second.get(1).getText()));
+        assertEquals(5, commentRepository.countByItemId(item.getId()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares loading {@link Item} entities and mapping them with loading {@link ItemDto} projections.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ItemProjectionBenchmarkTest}.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemProjectionBenchmarkTest {
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 20000);
+    private static final int REQUESTS = 100;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void projectionBenchmark() {
+        long requestId = seed().get(0);
+        PageRequest page = PageRequest.of(0, ITEMS);
+
+        assertEquals(entitySearch(page), itemRepository.search("benchmark", page));
+        assertEquals(entityRequestItems(requestId), itemRepository.findByItemRequestId(requestId));
+
+        report("search", () -> entitySearch(page), () -> itemRepository.search("benchmark", page));
+        report("request items", () -> entityRequestItems(requestId),
+                () -> itemRepository.findByItemRequestId(requestId));
+    }
+
+    private List<Long> seed() {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@bench.ru')");
+        long ownerId = jdbcTemplate.queryForObject("select id from users where email = 'owner@bench.ru'", Long.class);
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Object[]{ownerId, "request" + i, Timestamp.valueOf(LocalDateTime.now())});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (requestor_id, description, created) values (?, ?, ?)",
+                requests);
+        List<Long> requestIds = jdbcTemplate.queryForList("select id from requests", Long.class);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"benchmark item " + i, "description " + i, true, ownerId,
+                    requestIds.get(i % REQUESTS)});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id, request_id) " +
+                "values (?, ?, ?, ?, ?)", items);
+        return requestIds;
+    }
+
+    private List<ItemDto> entitySearch(PageRequest page) {
+        return toDtos(em.createQuery("select item from Item item where item.available = true " +
+                        "and lower(item.name) like :text order by item.id", Item.class)
+                .setParameter("text", "%benchmark%")
+                .setMaxResults(page.getPageSize())
+                .getResultList());
+    }
+
+    private List<ItemDto> entityRequestItems(long requestId) {
+        return toDtos(em.createQuery("select item from Item item where item.itemRequest.id = :id", Item.class)
+                .setParameter("id", requestId)
+                .getResultList());
+    }
+
+    private static List<ItemDto> toDtos(List<Item> items) {
+        return items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+    }
+
+    private void report(String name, Supplier<List<ItemDto>> entities, Supplier<List<ItemDto>> projections) {
+        long[] entity = measure(entities);
+        long[] projection = measure(projections);
+        log.info("{} over {} items: entities {} ms / {} KB, projections {} ms / {} KB", name, ITEMS,
+                entity[0] / 1_000_000, entity[1] / 1024, projection[0] / 1_000_000, projection[1] / 1024);
+    }
+
+    private long[] measure(Supplier<List<ItemDto>> query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        query.get();
+        em.clear();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocated = threads.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            query.get();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - started);
+            bestBytes = Math.min(bestBytes, threads.getThreadAllocatedBytes(threadId) - allocated);
+            em.clear();
+        }
+        return new long[]{bestNanos, bestBytes};
+    }
+}
@@ -8,12 +8,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,35 +71,86 @@ class ItemRepositoryTest {
         em.persist(item);
         PageRequest p = PageRequest.of(0, 20);
 
-        List<Item> items = itemRepository.searchByText("first", p);
+        List<ItemDto> items = itemRepository.search("first", p);
         assertEquals(1, items.size());
         assertEquals("name1", items.get(0).getName());
     }
 
     @Test
-    void searchByRequestsIdTest() {
-        ItemRequest itemRequest = new ItemRequest();
-        itemRequest.setId(1L);
-        itemRequest.setDescription("Description");
-        itemRequest.setRequestor(user);
-        itemRequest.setCreated(LocalDateTime.now());
-        Item itemWithRequest = new Item(
-                null,
-                "name3",
-                "description in item with request",
-                true,
-                user,
-                itemRequest);
-
+    void searchBySubstringTest() {
         em.persist(user);
         em.persist(item2);
         em.persist(item);
-        em.persist(itemWithRequest);
+        ItemSearchRepository substring = new ItemSearchRepositoryImpl(em.getEntityManager(),
+                ItemSearchMode.SUBSTRING, 0.6, false);
 
-        List<Item> items = itemRepository.searchByRequestsId(List.of(itemWithRequest.getItemRequest().getId()));
+        List<ItemDto> items = substring.search("ION FIR", PageRequest.of(0, 20));
         assertEquals(1, items.size());
-        assertEquals("name3", items.get(0).getName());
-        assertEquals("description in item with request", items.get(0).getDescription());
+        assertEquals("name1", items.get(0).getName());
+    }
+
+    @Test
+    void searchByAllTokensRankedByNameTest() {
+        Item drill = new Item(null, "Drill", "cordless tool", true, user, null);
+        Item toolbox = new Item(null, "Toolbox", "for a cordless drill", true, user, null);
+        Item saw = new Item(null, "Saw", "cordless tool", true, user, null);
+        Item unavailable = new Item(null, "Drill", "cordless", false, user, null);
+        em.persist(user);
+        em.persist(toolbox);
+        em.persist(drill);
+        em.persist(saw);
+        em.persist(unavailable);
+        ItemSearchRepository fulltext = new ItemSearchRepositoryImpl(em.getEntityManager(),
+                ItemSearchMode.FULLTEXT, 0.6, false);
+
+        List<ItemDto> items = fulltext.search("cordless, DRILL!", PageRequest.of(0, 20));
+        assertEquals(dtos(drill, toolbox), items);
+    }
+
+    @Test
+    void fuzzySearchRankedByScoreTest() {
+        Item drill = new Item(null, "Дрель", "ударная", true, user, null);
+        Item cordless = new Item(null, "Шуруповёрт", "аккумуляторная дрель-шуруповёрт", true, user, null);
+        Item drillBit = new Item(null, "Дрели сверло", "набор", true, user, null);
+        Item saw = new Item(null, "Пила", "ручная", true, user, null);
+        em.persist(user);
+        em.persist(cordless);
+        em.persist(drill);
+        em.persist(drillBit);
+        em.persist(saw);
+
+        List<ItemDto> items = itemRepository.fuzzySearch("дрел", PageRequest.of(0, 20));
+        assertEquals(dtos(cordless, drill, drillBit), items);
+        assertEquals(dtos(drill), itemRepository.fuzzySearch("дрел", PageRequest.of(1, 1)));
+        assertTrue(itemRepository.fuzzySearch("молоток", PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void suggestNamesTest() {
+        em.persist(user);
+        em.persist(new Item(null, "Дрель", "ударная", true, user, null));
+        em.persist(new Item(null, "Дробь", "мелкая", true, user, null));
+        em.persist(new Item(null, "Дробь", "крупная", true, user, null));
+        em.persist(new Item(null, "Дрезина", "ручная", false, user, null));
+
+        assertEquals(List.of("Дробь", "Дрель"), itemRepository.suggestNames("др", PageRequest.of(0, 10)));
+        assertEquals(List.of("Дробь"), itemRepository.suggestNames("др", PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void searchWithoutTokensTest() {
+        em.persist(user);
+        em.persist(item);
+
+        assertTrue(itemRepository.search(" !? ", PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void toTsQueryTest() {
+        List<String> tokens = ItemSearchRepositoryImpl.tokens("Дрель, drill-2000 дрель");
+
+        assertEquals(List.of("дрель", "drill", "2000"), tokens);
+        assertEquals("дрель:* & drill:* & 2000:*", ItemSearchRepositoryImpl.toTsQuery(tokens));
     }
 
     @Test
@@ -118,8 +173,14 @@ class ItemRepositoryTest {
         em.persist(item);
         em.persist(itemWithRequest);
 
-        List<Item> items = itemRepository.findByItemRequestId(1L);
+        List<ItemDto> items = itemRepository.findByItemRequestId(1L);
         assertEquals("name3", items.get(0).getName());
         assertEquals("description in item with request", items.get(0).getDescription());
     }
-}
\ No newline at end of file
+
+    private static List<ItemDto> dtos(Item... items) {
+        return Arrays.stream(items)
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+}
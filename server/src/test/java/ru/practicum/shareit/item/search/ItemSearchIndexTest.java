@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    User owner = new User(1L, "owner", "owner@email.ru");
+    ItemRequest request = new ItemRequest(7L, owner, "need a drill", null);
+    Item drill = new Item(1L, "Дрель", "Ударная дрель", true, owner, request);
+    Item saw = new Item(2L, "Пила", "Электрическая пила", true, owner, null);
+    Item screwdriver = new Item(3L, "Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", true, owner, null);
+
+    @Test
+    void build_whenItemsLoadedInChunks_thenAllSearchable() {
+        ItemSearchIndex index = builtIndex();
+
+        assertTrue(index.isReady());
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L, 3L), ids(index.search("ДРЕЛЬ", 0, 20)));
+        assertEquals(List.of(2L), ids(index.search("трическ", 0, 20)));
+        assertTrue(index.search("перфоратор", 0, 20).isEmpty());
+    }
+
+    @Test
+    void search_whenMatched_thenDtoBuiltFromIndex() {
+        ItemDto dto = builtIndex().search("удар", 0, 20).get(0);
+
+        assertEquals(new ItemDto(1L, "Дрель", "Ударная дрель", true, 7L), dto);
+    }
+
+    @Test
+    void search_whenQueryShorterThanTrigram_thenScansLiveItems() {
+        ItemSearchIndex index = builtIndex();
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("л", 0, 20)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("", 0, 20)));
+    }
+
+    @Test
+    void search_whenPaged_thenSkipsOffset() {
+        ItemSearchIndex index = builtIndex();
+
+        assertEquals(List.of(2L), ids(index.search("л", 1, 1)));
+        assertEquals(List.of(3L), ids(index.search("дрель", 1, 5)));
+    }
+
+    @Test
+    void search_whenTrigramsFoundInDifferentFields_thenNotMatched() {
+        ItemSearchIndex index = builtIndex();
+
+        assertTrue(index.search("пила электрическая", 0, 20).isEmpty());
+    }
+
+    @Test
+    void index_whenItemUpdatedOrUnavailable_thenReflected() {
+        ItemSearchIndex index = builtIndex();
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        index.index(drill);
+        saw.setAvailable(false);
+        index.index(saw);
+        index.index(new Item(4L, "Дрель", "Новая", true, owner, null));
+
+        assertEquals(List.of(3L, 4L), ids(index.search("дрель", 0, 20)));
+        assertEquals(List.of(1L), ids(index.search("перфо", 0, 20)));
+        assertTrue(index.search("пила", 0, 20).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void index_whenManyUpdates_thenCompactedWithoutLosingItems() {
+        ItemSearchIndex index = builtIndex();
+        for (int i = 0; i < 5000; i++) {
+            drill.setDescription("версия " + i);
+            index.index(drill);
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L), ids(index.search("версия 4999", 0, 20)));
+        assertTrue(index.search("версия 4998", 0, 20).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("шуруп", 0, 20)));
+    }
+
+    @Test
+    void index_whenDisabled_thenIgnored() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, false, 2);
+        index.build();
+        index.index(drill);
+
+        assertFalse(index.isReady());
+        assertEquals(0, index.size());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private ItemSearchIndex builtIndex() {
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(drill, saw));
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(List.of(screwdriver));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, true, 2);
+        index.build();
+        return index;
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures suggestion latency on a synthetic set of item names.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ItemSuggesterBenchmarkTest}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSuggesterBenchmarkTest {
+    private static final int NAMES = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final int QUERIES = 100_000;
+    private static final String ALPHABET = "абвгдежзиклмнопрстуфхцчшэюя";
+
+    @Test
+    void suggestLatencyBenchmark() {
+        Random random = new Random(42);
+        NameTrie trie = new NameTrie(10);
+        String[] names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = word(random, 3 + random.nextInt(5)) + " " + word(random, 3 + random.nextInt(7));
+            trie.load(names[i]);
+        }
+        trie.rank();
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String name = names[random.nextInt(NAMES)];
+            String prefix = name.substring(0, 1 + random.nextInt(name.length()));
+            long started = System.nanoTime();
+            trie.suggest(prefix, 10);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        log.info("{} names: p50 {} us, p99 {} us, max {} us", NAMES, nanos[QUERIES / 2] / 1000,
+                nanos[QUERIES * 99 / 100] / 1000, nanos[QUERIES - 1] / 1000);
+    }
+
+    private String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+}
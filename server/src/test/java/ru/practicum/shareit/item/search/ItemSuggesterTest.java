@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggesterTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    User owner = new User(1L, "owner", "owner@email.ru");
+    Item drill = new Item(1L, "Дрель", "Ударная", true, owner, null);
+    Item otherDrill = new Item(2L, "Дрель", "Аккумуляторная", true, owner, null);
+    Item shot = new Item(3L, "Дробь", "Охотничья", true, owner, null);
+
+    @Test
+    void build_whenItemsLoadedInChunks_thenSuggested() {
+        ItemSuggester suggester = builtSuggester();
+
+        assertTrue(suggester.isReady());
+        assertEquals(List.of("Дрель", "Дробь"), suggester.suggest("др", 10));
+    }
+
+    @Test
+    void index_whenItemsChanged_thenSuggestionsFollow() {
+        ItemSuggester suggester = builtSuggester();
+        drill.setName("Дробь");
+        suggester.index(drill);
+        otherDrill.setAvailable(false);
+        suggester.index(otherDrill);
+        suggester.index(new Item(4L, "Дрезина", "Ручная", true, owner, null));
+
+        assertEquals(List.of("Дробь", "Дрезина"), suggester.suggest("др", 10));
+        assertTrue(suggester.suggest("дрел", 10).isEmpty());
+    }
+
+    @Test
+    void build_whenDisabled_thenNothingLoaded() {
+        ItemSuggester suggester = new ItemSuggester(itemRepository, 10, 2, false);
+
+        suggester.build();
+        suggester.index(drill);
+
+        assertFalse(suggester.isReady());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private ItemSuggester builtSuggester() {
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(drill, otherDrill));
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(List.of(shot));
+        ItemSuggester suggester = new ItemSuggester(itemRepository, 10, 2, true);
+        suggester.build();
+        return suggester;
+    }
+}
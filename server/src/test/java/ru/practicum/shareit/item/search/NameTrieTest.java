@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrieTest {
+    @Test
+    void suggest_whenSeveralNames_thenRankedByCountThenName() {
+        NameTrie trie = trie("Дрель", "Дрель", "Дрезина", "Дробь", "Дрель", "Дробь", "Пила");
+
+        assertEquals(List.of("Дрель", "Дробь", "Дрезина"), trie.suggest("др", 10));
+        assertEquals(List.of("Дрель", "Дробь"), trie.suggest("Др", 2));
+        assertEquals(List.of("Пила"), trie.suggest("п", 10));
+    }
+
+    @Test
+    void suggest_whenPrefixEndsInsideEdge_thenSubtreeReturned() {
+        NameTrie trie = trie("перфоратор", "пила");
+
+        assertEquals(List.of("перфоратор"), trie.suggest("перфор", 10));
+        assertEquals(List.of("перфоратор"), trie.suggest("перфоратор", 10));
+        assertTrue(trie.suggest("перфоратор большой", 10).isEmpty());
+        assertTrue(trie.suggest("перфа", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_whenNameIsPrefixOfAnother_thenBothFound() {
+        NameTrie trie = trie("дрель ударная", "дрель", "дрель ударная");
+
+        assertEquals(List.of("дрель ударная", "дрель"), trie.suggest("дрель", 10));
+        assertEquals(List.of("дрель ударная"), trie.suggest("дрель у", 10));
+    }
+
+    @Test
+    void suggest_whenPrefixBlank_thenGlobalTop() {
+        NameTrie trie = trie("b", "a", "b");
+
+        assertEquals(List.of("b", "a"), trie.suggest("", 10));
+    }
+
+    @Test
+    void remove_whenCountDrops_thenRankingUpdated() {
+        NameTrie trie = trie("дрель", "дрель", "дробь");
+        trie.remove("ДРЕЛЬ");
+        trie.remove("дрель");
+
+        assertEquals(List.of("дробь"), trie.suggest("др", 10));
+        assertTrue(trie.suggest("дре", 10).isEmpty());
+    }
+
+    @Test
+    void remove_whenBranchMerged_thenRemainingStillReachable() {
+        NameTrie trie = trie("дрель", "дробь", "дрезина");
+        trie.remove("дробь");
+        trie.remove("дрель");
+        trie.remove("пила");
+
+        assertEquals(List.of("дрезина"), trie.suggest("д", 10));
+        assertEquals(List.of("дрезина"), trie.suggest("дрез", 10));
+        trie.add("дрель");
+        assertEquals(List.of("дрезина", "дрель"), trie.suggest("дре", 10));
+    }
+
+    @Test
+    void add_whenMoreThanTopK_thenOnlyBestKept() {
+        NameTrie trie = new NameTrie(2);
+        List.of("a1", "a2", "a3", "a3", "a2", "a3").forEach(trie::add);
+
+        assertEquals(List.of("a3", "a2"), trie.suggest("a", 10));
+        trie.remove("a3");
+        trie.remove("a3");
+        trie.remove("a3");
+        assertEquals(List.of("a2", "a1"), trie.suggest("a", 10));
+    }
+
+    @Test
+    void rank_whenLoadedInBulk_thenSameAsIncremental() {
+        NameTrie bulk = new NameTrie(2);
+        List.of("дрель", "дробь", "дрель", "дрезина", "пила").forEach(bulk::load);
+        bulk.rank();
+
+        assertEquals(List.of("дрель", "дрезина"), bulk.suggest("др", 10));
+        assertEquals(List.of("дрель", "дрезина"), bulk.suggest("", 10));
+        bulk.add("дробь");
+        bulk.add("дробь");
+        assertEquals(List.of("дробь", "дрель"), bulk.suggest("д", 10));
+    }
+
+    private NameTrie trie(String... names) {
+        NameTrie trie = new NameTrie(10);
+        for (String name : names) {
+            trie.add(name);
+        }
+        return trie;
+    }
+}
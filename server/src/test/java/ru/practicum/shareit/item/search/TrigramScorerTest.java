@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramScorerTest {
+    @Test
+    void trigrams_whenWordPadded_thenMatchPgTrgm() {
+        assertEquals(Set.of("  w", " wo", "wor", "ord", "rd "), TrigramScorer.trigrams(List.of("word")));
+    }
+
+    @Test
+    void wordSimilarity_whenQueryIsPrefixOfWord_thenSharedTrigramShare() {
+        assertEquals(0.8, TrigramScorer.wordSimilarity("word", "two words"), 1e-9);
+    }
+
+    @Test
+    void wordSimilarity_whenTypoInQuery_thenAboveThreshold() {
+        assertTrue(TrigramScorer.wordSimilarity("дрел", "Аккумуляторная дрель") >= 0.6);
+        assertTrue(TrigramScorer.wordSimilarity("дрэль", "Дрель") > 0.3);
+        assertTrue(TrigramScorer.wordSimilarity("пила", "Аккумуляторная дрель") < 0.3);
+    }
+
+    @Test
+    void wordSimilarity_whenExactMatch_thenOne() {
+        assertEquals(1.0, TrigramScorer.wordSimilarity("ударная дрель", "Дрель ударная, ударная дрель"), 1e-9);
+    }
+
+    @Test
+    void wordSimilarity_whenNothingToCompare_thenZero() {
+        assertEquals(0.0, TrigramScorer.wordSimilarity("!!", "дрель"));
+        assertEquals(0.0, TrigramScorer.wordSimilarity("дрель", null));
+    }
+}
@@ -0,0 +1,281 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemCount;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.repository.LatestComment;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemEnricherTest {
+    @Mock
+    BookingRepository bookingRepository;
+    @Mock
+    CommentRepository commentRepository;
+    @Mock
+    ItemStatsRepository statsRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ItemEnricher enricher;
+
+    User owner = new User(1L, "owner", "owner@email.ru");
+    User booker = new User(2L, "booker", "booker@email.ru");
+    Item first = new Item(1L, "first", "first item", true, owner, null);
+    Item second = new Item(2L, "second", "second item", true, owner, null);
+
+    @BeforeEach
+    void setUp() {
+        enricher = new ItemEnricher(bookingRepository, commentRepository, statsRepository, transactionManager,
+                meterRegistry, 2, 10, 0, false, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enricher.shutdown();
+    }
+
+    @Test
+    void enrich_whenBookingsAndComments_thenMergedIntoItems() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = new Booking(10L, now.minusDays(2), now.minusDays(1), first, booker, BookingStatus.APPROVED);
+        Booking next = new Booking(11L, now.plusDays(1), now.plusDays(2), first, booker, BookingStatus.APPROVED);
+        AtomicReference<String> bookingsThread = new AtomicReference<>();
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(1L, 2L)), any(), eq(1L))).thenAnswer(invocation -> {
+            bookingsThread.set(Thread.currentThread().getName());
+            return List.of(last, next);
+        });
+        when(commentRepository.findAllComments(List.of(1L, 2L)))
+                .thenReturn(List.of(new Comment(5L, "good", second, booker, now)));
+        when(statsRepository.countApprovedBookings(List.of(1L, 2L))).thenReturn(List.of(itemCount(1L, 2L)));
+
+        List<ItemDtoBooking> items = enricher.enrich(1L, List.of(first, second));
+
+        assertEquals(List.of(1L, 2L), List.of(items.get(0).getId(), items.get(1).getId()));
+        assertEquals(10L, items.get(0).getLastBooking().getId());
+        assertEquals(11L, items.get(0).getNextBooking().getId());
+        assertTrue(items.get(0).getComments().isEmpty());
+        assertNull(items.get(1).getLastBooking());
+        assertEquals("booker", items.get(1).getComments().get(0).getAuthorName());
+        assertEquals(0L, items.get(0).getCommentCount());
+        assertEquals(1L, items.get(1).getCommentCount());
+        assertEquals(2L, items.get(0).getBookingCount());
+        assertEquals(0L, items.get(1).getBookingCount());
+        assertTrue(bookingsThread.get().startsWith("item-enrichment-"));
+        verify(transactionManager, times(2)).getTransaction(any());
+        for (String stage : List.of("bookings", "comments", "total")) {
+            assertEquals(1, meterRegistry.get("item.enrichment").tag("stage", stage).timer().count());
+        }
+    }
+
+    @Test
+    void enrich_whenLatestCommentsLimited_thenWindowQueryUsedWithGroupedTotals() {
+        ItemEnricher latest = new ItemEnricher(bookingRepository, commentRepository, statsRepository,
+                transactionManager, meterRegistry, 2, 10, 2, false, 10);
+        LocalDateTime now = LocalDateTime.now();
+        when(commentRepository.findLatestComments(List.of(1L, 2L), 2)).thenReturn(List.of(
+                latestComment(7L, 1L, now), latestComment(6L, 1L, now.minusHours(1))));
+        when(statsRepository.countComments(List.of(1L, 2L))).thenReturn(List.of(itemCount(1L, 5L)));
+
+        try {
+            List<ItemDtoBooking> items = latest.enrich(1L, List.of(first, second));
+
+            assertEquals(List.of(7L, 6L), List.of(items.get(0).getComments().get(0).getId(),
+                    items.get(0).getComments().get(1).getId()));
+            assertEquals(5L, items.get(0).getCommentCount());
+            assertTrue(items.get(1).getComments().isEmpty());
+            assertEquals(0L, items.get(1).getCommentCount());
+            verify(commentRepository, never()).findAllComments(any());
+        } finally {
+            latest.shutdown();
+        }
+    }
+
+    @Test
+    void enrich_whenStatsFresh_thenOnlyMissingItemsRecomputed() {
+        ItemEnricher withStats = new ItemEnricher(bookingRepository, commentRepository, statsRepository,
+                transactionManager, meterRegistry, 2, 10, 0, true, 10);
+        LocalDateTime now = LocalDateTime.now();
+        ItemStats stats = new ItemStats(1L);
+        stats.setCommentCount(4L);
+        stats.setBookingCount(7L);
+        stats.setLastBooking(new Booking(10L, now.minusDays(2), now.minusDays(1), first, booker,
+                BookingStatus.APPROVED));
+        Booking next = new Booking(21L, now.plusDays(1), now.plusDays(2), second, booker, BookingStatus.APPROVED);
+        when(statsRepository.findFresh(eq(List.of(1L, 2L)), any())).thenReturn(List.of(stats));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(2L)), any(), eq(1L))).thenReturn(List.of(next));
+
+        try {
+            List<ItemDtoBooking> items = withStats.enrich(1L, List.of(first, second));
+
+            assertEquals(10L, items.get(0).getLastBooking().getId());
+            assertNull(items.get(0).getNextBooking());
+            assertEquals(21L, items.get(1).getNextBooking().getId());
+            assertEquals(4L, items.get(0).getCommentCount());
+            assertEquals(7L, items.get(0).getBookingCount());
+            assertEquals(0L, items.get(1).getCommentCount());
+            assertEquals(0L, items.get(1).getBookingCount());
+            verify(statsRepository).countApprovedBookings(List.of(2L));
+            assertEquals(1, meterRegistry.get("item.stats.reads").tag("result", "hit").counter().count());
+            assertEquals(1, meterRegistry.get("item.stats.reads").tag("result", "miss").counter().count());
+        } finally {
+            withStats.shutdown();
+        }
+    }
+
+    @Test
+    void enrich_whenNotOwner_thenBookingsNotLoaded() {
+        List<ItemDtoBooking> items = enricher.enrich(booker.getId(), List.of(first));
+
+        assertNull(items.get(0).getLastBooking());
+        assertNull(items.get(0).getBookingCount());
+        verifyNoInteractions(bookingRepository, statsRepository);
+    }
+
+    @Test
+    void enrich_whenNotOwnerAndStatsFresh_thenCommentCountFromStatsOnly() {
+        ItemEnricher withStats = new ItemEnricher(bookingRepository, commentRepository, statsRepository,
+                transactionManager, meterRegistry, 2, 10, 2, true, 10);
+        ItemStats stats = new ItemStats(1L);
+        stats.setCommentCount(12L);
+        stats.setBookingCount(3L);
+        when(statsRepository.findFresh(eq(List.of(1L)), any())).thenReturn(List.of(stats));
+
+        try {
+            List<ItemDtoBooking> items = withStats.enrich(booker.getId(), List.of(first));
+
+            assertEquals(12L, items.get(0).getCommentCount());
+            assertNull(items.get(0).getBookingCount());
+            assertNull(items.get(0).getLastBooking());
+            verify(statsRepository, never()).countComments(any());
+            verifyNoInteractions(bookingRepository);
+        } finally {
+            withStats.shutdown();
+        }
+    }
+
+    @Test
+    void enrich_whenBookingStageFails_thenFailurePropagated() {
+        when(bookingRepository.findLastAndNextBookings(any(), any(), anyLong()))
+                .thenThrow(new IllegalStateException("broken"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> enricher.enrich(1L, List.of(first)));
+        assertEquals("broken", ex.getMessage());
+    }
+
+    @Test
+    void enrich_whenCallerInTransaction_thenBookingsLoadedOnCallerThread() {
+        AtomicReference<String> bookingsThread = new AtomicReference<>();
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(1L)), any(), eq(1L))).thenAnswer(invocation -> {
+            bookingsThread.set(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            enricher.enrich(1L, List.of(first));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(Thread.currentThread().getName(), bookingsThread.get());
+    }
+
+    @Test
+    void enrich_whenPoolSmallerThanThreads_thenThreadsLimitedByPool() {
+        ItemEnricher limited = new ItemEnricher(bookingRepository, commentRepository, statsRepository,
+                transactionManager, meterRegistry, 8, 10, 0, false, 3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(bookingRepository.findLastAndNextBookings(any(), any(), anyLong())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        try {
+            for (int i = 0; i < 20; i++) {
+                limited.enrich(1L, List.of(first));
+            }
+
+            assertTrue(threads.stream().allMatch(name -> name.equals("item-enrichment-1")
+                    || name.equals(Thread.currentThread().getName())));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void enrich_whenNoItems_thenNothingLoaded() {
+        assertTrue(enricher.enrich(1L, List.of()).isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
+    private ItemCount itemCount(long itemId, long total) {
+        return new ItemCount() {
+            public Long getItemId() {
+                return itemId;
+            }
+
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private LatestComment latestComment(long id, long itemId, LocalDateTime created) {
+        return new LatestComment() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getText() {
+                return "comment " + id;
+            }
+
+            public Long getItemId() {
+                return itemId;
+            }
+
+            public String getAuthorName() {
+                return "booker";
+            }
+
+            public LocalDateTime getCreated() {
+                return created;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.item.import.chunk-size=2")
+@AutoConfigureTestDatabase
+class ItemImporterTest {
+    @Autowired
+    private ItemImporter importer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long ownerId;
+    private long requestId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@email.ru')");
+        ownerId = jdbcTemplate.queryForObject("select id from users where email = 'owner@email.ru'", Long.class);
+        jdbcTemplate.update("insert into requests (requestor_id, description, created) values (?, ?, ?)",
+                ownerId, "request", Timestamp.valueOf(LocalDateTime.now()));
+        requestId = jdbcTemplate.queryForObject("select max(id) from requests", Long.class);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void importItems_whenLinesMixed_thenValidInsertedAndEveryLineReported() throws IOException {
+        String ndjson = "{\"name\":\"Дрель\",\"description\":\"ударная\",\"available\":true}\n" +
+                "not json\n" +
+                "\n" +
+                "{\"name\":\"Пила\",\"description\":\"ручная\",\"available\":false,\"requestId\":" + requestId + "}\n" +
+                "{\"name\":\"Молоток\",\"description\":\"большой\",\"available\":true,\"requestId\":-1}\n" +
+                "{\"name\":\"\",\"description\":\"без имени\",\"available\":true}\n" +
+                "{\"name\":\"" + "Д".repeat(65) + "\",\"description\":\"длинная\",\"available\":true}\n" +
+                "{\"name\":\"Лом\",\"description\":\"" + "л".repeat(65) + "\",\"available\":true}\n" +
+                "{\"name\":\"Топор\",\"description\":\"острый\",\"available\":true}\n";
+
+        List<ItemImportResultDto> results = importItems(ownerId, ndjson);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L, 7L, 8L, 9L), results.stream().map(ItemImportResultDto::getLine)
+                .collect(Collectors.toList()));
+        assertNotNull(results.get(0).getId());
+        assertTrue(results.get(1).getError().startsWith("Malformed item"));
+        assertNotNull(results.get(2).getId());
+        assertEquals("Request -1 not found", results.get(3).getError());
+        assertEquals("Name, description and availability are required", results.get(4).getError());
+        assertEquals("Name is longer than 64 characters", results.get(5).getError());
+        assertEquals("Description is longer than 64 characters", results.get(6).getError());
+        assertNotNull(results.get(7).getId());
+        assertEquals(List.of("Дрель", "Пила", "Топор"), jdbcTemplate.queryForList(
+                "select name from items where owner_id = ? order by id", String.class, ownerId));
+        assertEquals(requestId, jdbcTemplate.queryForObject("select request_id from items where id = ?", Long.class,
+                results.get(2).getId()));
+    }
+
+    @Test
+    void importItems_whenUserNotFound_thenNothingRead() {
+        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
+                () -> importItems(-1L, "{\"name\":\"Дрель\",\"description\":\"ударная\",\"available\":true}\n"));
+        assertEquals("User not found", ex.getMessage());
+    }
+
+    private List<ItemImportResultDto> importItems(long userId, String ndjson) throws IOException {
+        StringWriter output = new StringWriter();
+        importer.importItems(userId, new BufferedReader(new StringReader(ndjson)), output);
+        List<ItemImportResultDto> results = new ArrayList<>();
+        for (String line : output.toString().split("\n")) {
+            results.add(objectMapper.readValue(line, ItemImportResultDto.class));
+        }
+        return results;
+    }
+}
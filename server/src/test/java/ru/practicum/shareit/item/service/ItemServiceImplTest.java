@@ -1,32 +1,47 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.availability.ItemCalendarCache;
+import ru.practicum.shareit.booking.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.item.stats.ItemStatsUpdater;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.request.match.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -49,6 +64,22 @@ class ItemServiceImplTest {
     BookingRepository bookingRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemCalendarCache itemCalendars;
+    @Mock
+    ItemSearchIndex searchIndex;
+    @Mock
+    ItemSuggester suggester;
+    @Mock
+    ItemEnricher itemEnricher;
+    @Mock
+    ItemStatsUpdater itemStats;
+    @Mock
+    RequestMatcher requestMatcher;
+    @Mock
+    ExistenceService existence;
+    @Spy
+    ItemViewCache itemViews = new ItemViewCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
     @InjectMocks
     ItemServiceImpl itemService;
     @Captor
@@ -66,13 +97,58 @@ class ItemServiceImplTest {
     void findItem_whenItemFound_thenReturnItem() {
         ItemDtoBooking expectedItem = new ItemDtoBooking();
         expectedItem.setComments(new ArrayList<>());
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(new Item()));
+        Item item = new Item();
+        item.setOwner(new User(1L, "name", "email@email.ru"));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemEnricher.enrich(1L, List.of(item))).thenReturn(List.of(ItemMapper.toItemDtoBooking(item)));
 
         ItemDtoBooking actualItem = itemService.findItem(1L, 1L);
 
         assertEquals(expectedItem, actualItem);
     }
 
+    @Test
+    void findItem_whenViewCached_thenNotReloadedUntilItemUpdated() {
+        User owner = new User(1L, "name", "email@email.ru");
+        Item item = new Item(1L, "name", "description", true, owner, null);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemEnricher.enrich(anyLong(), any())).thenAnswer(invocation ->
+                List.of(ItemMapper.toItemDtoBooking(item)));
+
+        itemService.findItem(1L, 1L);
+        itemService.findItem(1L, 1L);
+        itemService.findItem(2L, 1L);
+        itemService.findItem(3L, 1L);
+        verify(itemEnricher, times(1)).enrich(eq(1L), any());
+        verify(itemEnricher, times(1)).enrich(eq(2L), any());
+        verify(itemEnricher, never()).enrich(eq(3L), any());
+
+        itemService.update(1L, 1L, new ItemDto(null, "new name", null, null, null));
+        assertEquals("new name", itemService.findItem(1L, 1L).getName());
+        verify(itemEnricher, times(2)).enrich(eq(1L), any());
+    }
+
+    @Test
+    void getAvailability_whenItemFound_thenRangesReturned() {
+        LocalDate from = LocalDate.now();
+        List<AvailabilityRangeDto> ranges = List.of(new AvailabilityRangeDto(from, from.plusDays(2), true));
+        when(itemCalendars.getAvailability(1L, from, from.plusDays(2))).thenReturn(ranges);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(1L, from, from.plusDays(2));
+
+        assertEquals(ranges, availability.getRanges());
+        assertEquals(from, availability.getFrom());
+    }
+
+    @Test
+    void getAvailability_whenPeriodTooLong_thenBadRequestThrown() {
+        LocalDate from = LocalDate.now();
+
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(1L, from, from.plusYears(2)));
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(1L, from, from.minusDays(1)));
+        verify(itemCalendars, never()).getAvailability(anyLong(), any(), any());
+    }
+
     @Test
     void findItem_whenItemNotFound_thenObjectNotFoundThrown() {
         when(itemRepository.findById(1L)).thenReturn(Optional.empty());
@@ -106,7 +182,7 @@ class ItemServiceImplTest {
                 true,
                 user,
                 itemRequest);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(itemRepository.save(item)).thenReturn(item);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
 
@@ -114,11 +190,13 @@ class ItemServiceImplTest {
 
         assertEquals(expectedItemDto, actualItemDto);
         verify(itemRepository).save(item);
+        verify(requestMatcher).itemChanged(item);
+        verify(existence).itemCreated(1L);
     }
 
     @Test
     void create_whenUserNotFound_thenItemExceptionThrown() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        doThrow(new ObjectNotFoundException("User not found")).when(existence).requireUser(1L, "User not found");
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class, () -> itemService.create(1L, new ItemDto()));
         assertEquals("User not found", ex.getMessage());
@@ -156,6 +234,7 @@ class ItemServiceImplTest {
         assertEquals(actual.getDescription(), saved.getDescription());
         assertEquals(actual.getAvailable(), saved.getAvailable());
         assertNull(actual.getRequestId());
+        verify(requestMatcher).itemChanged(oldItem);
     }
 
     @Test
@@ -195,7 +274,8 @@ class ItemServiceImplTest {
                 true,
                 user,
                 null);
-        when(itemRepository.searchByText(anyString(), any())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.search(anyString(), any()))
+                .thenReturn(Collections.singletonList(ItemMapper.toItemDto(item)));
         PageRequest p = PageRequest.of(0, 20);
 
         List<ItemDto> actual = itemService.searchItem("дрель", p);
@@ -203,9 +283,47 @@ class ItemServiceImplTest {
         assertEquals(ItemMapper.toItemDto(item), actual.get(0));
     }
 
+    @Test
+    void searchItem_whenIndexReady_thenAnsweredFromIndex() {
+        ItemDto indexed = new ItemDto(1L, "name", "Какая-то дрель", true, null);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("дрель", 20, 10)).thenReturn(List.of(indexed));
+
+        List<ItemDto> actual = itemService.searchItem("дрель", PageRequest.of(2, 10));
+        assertEquals(List.of(indexed), actual);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void fuzzySearchItem_whenMatched_thenReturnItems() {
+        Item item = new Item(1L, "Дрель", "Ударная", true, new User(1L, "name", "email@email.ru"), null);
+        when(itemRepository.fuzzySearch(anyString(), any())).thenReturn(List.of(ItemMapper.toItemDto(item)));
+
+        List<ItemDto> actual = itemService.fuzzySearchItem("дрел", PageRequest.of(0, 20));
+        assertEquals(List.of(ItemMapper.toItemDto(item)), actual);
+    }
+
+    @Test
+    void suggest_whenSuggesterReady_thenLimitedToTopK() {
+        when(suggester.getTopK()).thenReturn(10);
+        when(suggester.isReady()).thenReturn(true);
+        when(suggester.suggest("др", 10)).thenReturn(List.of("Дрель"));
+
+        assertEquals(List.of("Дрель"), itemService.suggest("др", 50));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void suggest_whenSuggesterNotReady_thenLoadedFromRepository() {
+        when(suggester.getTopK()).thenReturn(10);
+        when(itemRepository.suggestNames("др", PageRequest.of(0, 5))).thenReturn(List.of("Дрель"));
+
+        assertEquals(List.of("Дрель"), itemService.suggest(" Др", 5));
+    }
+
     @Test
     void searchItem_whenTextIsBlank_thenReturnEmptyList() {
-        when(itemRepository.searchByText(anyString(), any())).thenReturn(Collections.emptyList());
+        when(itemRepository.search(anyString(), any())).thenReturn(Collections.emptyList());
         PageRequest p = PageRequest.of(0, 20);
 
         List<ItemDto> actual = itemService.searchItem("дрель", p);
@@ -247,11 +365,37 @@ class ItemServiceImplTest {
         forSend.setCreated(actual.getCreated());
 
         verify(commentRepository).save(forSend);
+        verify(itemStats).itemChanged(1L);
         assertEquals(forSend.getId(), actual.getId());
         assertEquals(forSend.getText(), actual.getText());
         assertEquals(forSend.getAuthor().getName(), actual.getAuthorName());
     }
 
+    @Test
+    void getComments_whenCursorGiven_thenKeysetPageReturnedWithTotal() {
+        User user = new User(1L, "name", "email@email.ru");
+        Item item = new Item(1L, "name", "Какая-то дрель", true, user, null);
+        LocalDateTime created = LocalDateTime.now();
+        Comment comment = new Comment(2L, "Хорошая дрель", item, user, created.minusHours(1));
+        when(commentRepository.findPageAfter(1L, created, 3L, PageRequest.of(0, 2))).thenReturn(List.of(comment));
+        when(commentRepository.countByItemId(1L)).thenReturn(3L);
+
+        CommentPageDto page = itemService.getComments(1L, new KeysetCursor(created, 3L), 2);
+
+        assertEquals(List.of(CommentMapper.toCommentDto(comment)), page.getComments());
+        assertEquals(3L, page.getTotal());
+        verify(commentRepository, never()).findByItemIdOrderByCreatedDescIdDesc(anyLong(), any());
+    }
+
+    @Test
+    void getComments_whenItemNotFound_thenObjectNotFoundThrown() {
+        doThrow(new ObjectNotFoundException("Item not found")).when(existence).requireItem(1L, "Item not found");
+
+        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class,
+                () -> itemService.getComments(1L, null, 20));
+        assertEquals("Item not found", ex.getMessage());
+    }
+
     @Test
     void addComment_whenUserHasNotBooking_thenExceptionThrown() {
         User user = new User(
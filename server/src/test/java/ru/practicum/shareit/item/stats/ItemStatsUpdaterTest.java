@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"shareit.item.stats.enabled=true", "shareit.item.stats.rebuild.chunk-size=2"})
+@AutoConfigureTestDatabase
+class ItemStatsUpdaterTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemStatsUpdater updater;
+    @Autowired
+    private ItemStatsRebuildJob rebuildJob;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long lastId;
+    private long nextId;
+
+    @BeforeEach
+    void seed() {
+        ownerId = insertUser("owner");
+        bookerId = insertUser("booker");
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                    "values (?, ?, true, ?)", "item" + i, "description" + i, ownerId);
+        }
+        itemId = jdbcTemplate.queryForObject("select max(id) from items", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        insertBooking(now.minusDays(5), now.minusDays(4), "APPROVED");
+        lastId = insertBooking(now.minusDays(2), now.minusDays(1), "APPROVED");
+        nextId = insertBooking(now.plusDays(1), now.plusDays(2), "WAITING");
+        insertBooking(now.plusDays(3), now.plusDays(4), "REJECTED");
+        jdbcTemplate.update("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                "comment", itemId, bookerId, Timestamp.valueOf(now));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from item_stats");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void rebuild_whenItemsExist_thenStatsComputedForEveryItem() {
+        assertEquals(5, rebuildJob.rebuild());
+
+        Map<String, Object> stats = stats(itemId);
+        assertEquals(5L, jdbcTemplate.queryForObject("select count(*) from item_stats", Long.class));
+        assertEquals(1L, ((Number) stats.get("comment_count")).longValue());
+        assertEquals(2L, ((Number) stats.get("booking_count")).longValue());
+        assertEquals(lastId, ((Number) stats.get("last_booking_id")).longValue());
+        assertEquals(nextId, ((Number) stats.get("next_booking_id")).longValue());
+        assertNotNull(stats.get("valid_until"));
+        assertEquals(false, stats.get("dirty"));
+    }
+
+    @Test
+    void itemsChanged_whenStatsExist_thenMarkedDirtyAndRefreshedAsync() throws InterruptedException {
+        updater.refresh(List.of(itemId));
+        jdbcTemplate.update("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                "another", itemId, bookerId, Timestamp.valueOf(LocalDateTime.now()));
+
+        updater.itemChanged(itemId);
+
+        for (int i = 0; i < 100 && (updater.pendingCount() > 0 || (Boolean) stats(itemId).get("dirty")); i++) {
+            Thread.sleep(20);
+        }
+        Map<String, Object> stats = stats(itemId);
+        assertEquals(false, stats.get("dirty"));
+        assertEquals(2L, ((Number) stats.get("comment_count")).longValue());
+    }
+
+    private Map<String, Object> stats(long itemId) {
+        return jdbcTemplate.queryForMap("select * from item_stats where item_id = ?", itemId);
+    }
+
+    private long insertUser(String name) {
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name, name + "@email.ru");
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, name + "@email.ru");
+    }
+
+    private long insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        long id = jdbcTemplate.queryForObject("select nextval('booking_id_seq')", Long.class);
+        jdbcTemplate.update("insert into bookings (id, start_time, end_time, item_id, booker_id, status, phase) " +
+                        "values (?, ?, ?, ?, ?, ?, ?)", id, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId,
+                bookerId, status, BookingPhase.of(start, end, LocalDateTime.now()).name());
+        return id;
+    }
+}
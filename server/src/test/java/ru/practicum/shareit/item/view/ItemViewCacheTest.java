@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.view;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemViewCacheTest {
+    private static final long OWNER = 1L;
+    private static final long OTHER = 2L;
+
+    MutableClock clock = new MutableClock();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ItemViewCache cache = new ItemViewCache(meterRegistry, 2, Duration.ofMinutes(5), clock);
+    List<String> loads = new ArrayList<>();
+
+    @Test
+    void get_whenOwnerAndOtherUser_thenViewsCachedSeparately() {
+        ItemDtoBooking ownerView = cache.get(1L, OWNER, () -> load(1L, OWNER, null));
+        ItemDtoBooking publicView = cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+
+        assertSame(ownerView, cache.get(1L, OWNER, () -> load(1L, OWNER, null)));
+        assertSame(publicView, cache.get(1L, 3L, () -> load(1L, 3L, null)));
+        assertNotSame(ownerView, publicView);
+        assertEquals(List.of("1:1", "1:2"), loads);
+        assertEquals(2, count("cache.gets", "result", "hit"));
+        assertEquals(2, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void get_whenTtlPassed_thenReloaded() {
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        clock.advance(Duration.ofMinutes(6));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+
+        assertEquals(2, loads.size());
+        assertEquals(1, count("cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void get_whenNextBookingStarts_thenOwnerViewReloaded() {
+        LocalDateTime nextStart = LocalDateTime.now(clock).plusMinutes(1);
+        cache.get(1L, OWNER, () -> load(1L, OWNER, nextStart));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        clock.advance(Duration.ofMinutes(2));
+        cache.get(1L, OWNER, () -> load(1L, OWNER, null));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+
+        assertEquals(List.of("1:1", "1:2", "1:1"), loads);
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_thenLeastRecentlyUsedEvicted() {
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        cache.get(2L, OTHER, () -> load(2L, OTHER, null));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        cache.get(3L, OTHER, () -> load(3L, OTHER, null));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        cache.get(2L, OTHER, () -> load(2L, OTHER, null));
+
+        assertEquals(List.of("1:2", "2:2", "3:2", "2:2"), loads);
+        assertEquals(2, cache.size());
+        assertEquals(2, count("cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void invalidate_whenCalled_thenBothViewsReloaded() {
+        cache.get(1L, OWNER, () -> load(1L, OWNER, null));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+        cache.invalidate(1L);
+        cache.get(1L, OWNER, () -> load(1L, OWNER, null));
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+
+        assertEquals(4, loads.size());
+        assertEquals(1, count("cache.evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void get_whenInvalidatedDuringLoad_thenStaleViewNotCached() {
+        cache.get(1L, OTHER, () -> {
+            cache.invalidate(1L);
+            return load(1L, OTHER, null);
+        });
+        cache.get(1L, OTHER, () -> load(1L, OTHER, null));
+
+        assertEquals(2, loads.size());
+    }
+
+    private ItemViewCache.Loaded load(long itemId, long userId, LocalDateTime nextStart) {
+        loads.add(itemId + ":" + userId);
+        ItemDtoBooking view = new ItemDtoBooking(itemId, "name", "description", true, null, null,
+                new ArrayList<>(), 0L, null);
+        if (nextStart != null) view.setNextBooking(new BookingDto(1L, nextStart, nextStart.plusDays(1), itemId,
+                OTHER, null));
+        return new ItemViewCache.Loaded(OWNER, view);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2030-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,11 +17,14 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -61,7 +65,7 @@ class ItemRequestControllerTest {
     void getRequestsInfoTest() throws Exception {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         ItemRequestDtoResponse req = ItemRequestMapper.toItemRequestDtoResponse(itemRequest);
-        when(itemRequestService.getRequestsInfo(anyLong())).thenReturn(Collections.singletonList(req));
+        when(itemRequestService.getRequestsInfo(anyLong(), any(), anyInt(), anyInt())).thenReturn(Collections.singletonList(req));
 
         mvc.perform(get("/requests")
                     .contentType(MediaType.APPLICATION_JSON)
@@ -93,15 +97,40 @@ class ItemRequestControllerTest {
     void getRequestsListTest() throws Exception {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         ItemRequestDtoResponse req = ItemRequestMapper.toItemRequestDtoResponse(itemRequest);
-        when(itemRequestService.getRequestsList(anyLong(), anyInt(), anyInt())).thenReturn(Collections.singletonList(req));
+        when(itemRequestService.getRequestsList(anyLong(), any(), anyInt(), anyInt())).thenReturn(Collections.singletonList(req));
 
         mvc.perform(get("/requests/all")
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].requestorId").value(1L))
                 .andExpect(jsonPath("$[0].description").value("description"));
     }
+
+    @Test
+    void getRequestsInfo_whenPageFull_thenNextCursorReturned() throws Exception {
+        ItemRequestDtoResponse req = ItemRequestMapper.toItemRequestDtoResponse(
+                ItemRequestMapper.toItemRequest(itemRequestDto, user));
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 7L);
+        when(itemRequestService.getRequestsInfo(eq(1L), any(), eq(0), eq(1))).thenReturn(List.of(req));
+
+        mvc.perform(get("/requests?size=1&after=" + after.encode())
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(req.getCreated(), req.getId()).encode()));
+
+        verify(itemRequestService).getRequestsInfo(eq(1L), argThat(cursor -> cursor.getId() == 7L
+                && cursor.getTime().equals(after.getTime())), eq(0), eq(1));
+    }
+
+    @Test
+    void getRequestsInfo_whenCursorInvalid_thenBadRequest() throws Exception {
+        mvc.perform(get("/requests?after=broken")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
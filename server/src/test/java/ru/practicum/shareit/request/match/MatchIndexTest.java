@@ -0,0 +1,38 @@
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchIndexTest {
+    @Test
+    void tokens_whenTextMixed_thenStemmedWordsWithoutShortAndStopWords() {
+        assertEquals(Set.of("дрель", "бетон", "дня"), MatchIndex.tokens("Нужна дрель для бетона, на 2 дня"));
+        assertEquals(MatchIndex.tokens("палатку"), MatchIndex.tokens("Палатка"));
+        assertTrue(MatchIndex.tokens(null).isEmpty());
+    }
+
+    @Test
+    void score_whenHalfOfRequestTokensShared_thenHalf() {
+        assertEquals(0.5, MatchIndex.score(Set.of("нужна", "дрель"), Set.of("дрель", "ударная")));
+        assertEquals(0, MatchIndex.score(Set.of("пила"), Set.of("дрель")));
+    }
+
+    @Test
+    void candidates_whenEntryReplacedOrRemoved_thenPostingsFollow() {
+        MatchIndex index = new MatchIndex();
+        index.put(1L, 10L, 0, Set.of("дрель", "ударная"));
+        index.put(2L, 10L, 0, Set.of("пила"));
+
+        assertEquals(Set.of(1L, 2L), index.candidates(Set.of("дрель", "пила")));
+
+        index.put(1L, 10L, 0, Set.of("молоток"));
+        assertEquals(Set.of(2L), index.candidates(Set.of("дрель", "пила")));
+
+        index.remove(2L);
+        assertTrue(index.candidates(Set.of("пила")).isEmpty());
+        assertEquals(1, index.size());
+    }
+}
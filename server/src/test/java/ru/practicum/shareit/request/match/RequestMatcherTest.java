@@ -0,0 +1,125 @@
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"shareit.request.match.enabled=true", "shareit.request.match.delay=0ms",
+        "shareit.request.match.top-k=2"})
+@AutoConfigureTestDatabase
+class RequestMatcherTest {
+    @Autowired
+    private RequestMatcher matcher;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long requestorId;
+
+    @BeforeEach
+    void seed() {
+        ownerId = insertUser("owner");
+        requestorId = insertUser("requestor");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from request_matches");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void requestCreated_whenMatchingItemsExist_thenTopSuggestionsStored() throws InterruptedException {
+        long drill = itemService.create(ownerId, new ItemDto(null, "Дрель", "Ударная дрель", true, null)).getId();
+        long cordless = itemService.create(ownerId, new ItemDto(null, "Дрель аккумуляторная", "Дрель для бетона",
+                true, null)).getId();
+        itemService.create(ownerId, new ItemDto(null, "Пила", "Ручная пила", true, null));
+        itemService.create(requestorId, new ItemDto(null, "Дрель", "Своя дрель", true, null));
+        awaitIdle();
+
+        long requestId = requestService.create(requestorId,
+                new ItemRequestDto(null, null, "Нужна дрель для бетона", null)).getId();
+        awaitIdle();
+
+        assertEquals(List.of(cordless, drill), suggestions(requestId));
+    }
+
+    @Test
+    void itemChanged_whenItemMatchesOpenRequest_thenSuggestedAndDroppedWhenUnavailable()
+            throws InterruptedException {
+        long requestId = requestService.create(requestorId,
+                new ItemRequestDto(null, null, "Ищу палатку", null)).getId();
+        long tent = itemService.create(ownerId, new ItemDto(null, "Палатка", "Палатка на двоих", true, null))
+                .getId();
+        awaitIdle();
+
+        assertEquals(List.of(tent), suggestions(requestId));
+
+        itemService.update(ownerId, tent, new ItemDto(null, null, null, false, null));
+        awaitIdle();
+
+        assertTrue(suggestions(requestId).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from request_matches", Integer.class));
+    }
+
+    @Test
+    void itemChanged_whenSuggestedItemDropped_thenRequestRefilledFromIndex() throws InterruptedException {
+        itemService.create(ownerId, new ItemDto(null, "Перфоратор", "Мощный перфоратор", true, null));
+        itemService.create(ownerId, new ItemDto(null, "Перфоратор легкий", "Перфоратор для стен", true, null));
+        itemService.create(ownerId, new ItemDto(null, "Перфоратор сетевой", "Перфоратор для стен и пола", true,
+                null));
+        awaitIdle();
+        long requestId = requestService.create(requestorId,
+                new ItemRequestDto(null, null, "Нужен перфоратор для стен", null)).getId();
+        awaitIdle();
+        List<Long> before = suggestions(requestId);
+        assertEquals(2, before.size());
+
+        itemService.update(ownerId, before.get(0), new ItemDto(null, null, null, false, null));
+        awaitIdle();
+
+        List<Long> after = suggestions(requestId);
+        assertEquals(2, after.size());
+        assertFalse(after.contains(before.get(0)));
+        assertTrue(after.contains(before.get(1)));
+    }
+
+    private List<Long> suggestions(long requestId) {
+        ItemRequestDtoResponse request = requestService.getRequestInfo(requestorId, requestId);
+        return request.getSuggestions().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 250 && matcher.pendingCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, matcher.pendingCount());
+    }
+
+    private long insertUser(String name) {
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name, name + "@email.ru");
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, name + "@email.ru");
+    }
+}
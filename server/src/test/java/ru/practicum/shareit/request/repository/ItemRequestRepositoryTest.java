@@ -8,11 +8,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,26 +44,62 @@ class ItemRequestRepositoryTest {
     }
 
     @Test
-    void findAllByRequestorIdTest() {
+    void findOwnFeed_whenRequestsHaveItems_thenNewestFirstWithItems() {
+        User other = new User(null, "other", "other@user.ru");
         em.persist(user);
-        em.persist(itemRequest);
+        em.persist(other);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        ItemRequest older = em.persist(new ItemRequest(null, user, "older", now.minusDays(1)));
+        ItemRequest newer = em.persist(new ItemRequest(null, user, "newer", now));
+        em.persist(new ItemRequest(null, other, "foreign", now.plusDays(1)));
+        em.persist(new Item(null, "drill", "drill", true, other, older));
+        em.persist(new Item(null, "saw", "saw", true, other, older));
 
-        List<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequestorId(user.getId());
-        assertEquals(1, itemRequestList.size());
-        assertEquals("description", itemRequestList.get(0).getDescription());
+        List<ItemRequestDtoResponse> feed = itemRequestRepository.findOwnFeed(user.getId(), null,
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(newer.getId(), older.getId()), feed.stream()
+                .map(ItemRequestDtoResponse::getId)
+                .collect(Collectors.toList()));
+        assertTrue(feed.get(0).getItems().isEmpty());
+        assertEquals(List.of("drill", "saw"), feed.get(1).getItems().stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toList()));
+        assertEquals(older.getId(), feed.get(1).getItems().get(0).getRequestId());
+        assertEquals(now.minusDays(1), feed.get(1).getCreated());
     }
 
     @Test
-    void findAllPageableTest() {
+    void findOthersFeed_whenPagedByItemsAndCursor_thenRequestsNotRowsLimited() {
+        User other = new User(null, "other", "other@user.ru");
         em.persist(user);
-        em.persist(itemRequest);
-        PageRequest pg = PageRequest.of(0, 10);
+        em.persist(other);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        ItemRequest first = em.persist(new ItemRequest(null, other, "first", now));
+        ItemRequest second = em.persist(new ItemRequest(null, other, "second", now));
+        ItemRequest third = em.persist(new ItemRequest(null, other, "third", now.minusHours(1)));
+        em.persist(new ItemRequest(null, user, "own", now));
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Item(null, "item" + i, "item", true, user, second));
+        }
+
+        List<ItemRequestDtoResponse> page = itemRequestRepository.findOthersFeed(user.getId(), null,
+                PageRequest.of(0, 1));
+
+        assertEquals(1, page.size());
+        assertEquals(second.getId(), page.get(0).getId());
+        assertEquals(3, page.get(0).getItems().size());
 
-        List<ItemRequest> itemRequestList = itemRequestRepository.findAllPageable(9999L, pg);
-        assertEquals(1, itemRequestList.size());
-        assertEquals("description", itemRequestList.get(0).getDescription());
+        KeysetCursor after = new KeysetCursor(page.get(0).getCreated(), page.get(0).getId());
+        List<ItemRequestDtoResponse> next = itemRequestRepository.findOthersFeed(user.getId(), after,
+                PageRequest.of(0, 5));
 
-        itemRequestList = itemRequestRepository.findAllPageable(user.getId(), pg);
-        assertTrue(itemRequestList.isEmpty());
+        assertEquals(List.of(first.getId(), third.getId()), next.stream()
+                .map(ItemRequestDtoResponse::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(third.getId()), itemRequestRepository.findOthersFeed(user.getId(), null,
+                PageRequest.of(2, 1)).stream()
+                .map(ItemRequestDtoResponse::getId)
+                .collect(Collectors.toList()));
     }
-}
\ No newline at end of file
+}
@@ -6,12 +6,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.match.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -25,6 +30,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +43,10 @@ class ItemRequestServiceImplTest {
     ItemRequestRepository requestRepository;
     @Mock
     UserRepository userRepository;
+    @Mock
+    RequestMatcher requestMatcher;
+    @Mock
+    ExistenceService existence;
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
 
@@ -58,7 +69,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenUserFound_thenSaved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         when(requestRepository.save(any())).thenReturn(itemRequest);
         ItemRequestDto actual = itemRequestService.create(user.getId(), itemRequestDto);
@@ -66,11 +77,12 @@ class ItemRequestServiceImplTest {
 
         assertEquals(itemRequestDto, actual);
         verify(requestRepository, Mockito.times(1)).save(any());
+        verify(requestMatcher).requestCreated(itemRequest);
     }
 
     @Test
     void create_whenUserNotFound_thenExceptionThrown() {
-        when(userRepository.findById(anyLong())).thenThrow(new ObjectNotFoundException("User not found"));
+        doThrow(new ObjectNotFoundException("User not found")).when(existence).requireUser(1L, "User not found");
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class, () -> itemRequestService.create(1L, itemRequestDto));
         assertEquals("User not found", ex.getMessage());
@@ -78,39 +90,40 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsInfo_whenUserFound_thenReturnRequestsList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-
-        List<ItemRequestDtoResponse> responseList = itemRequestService.getRequestsInfo(user.getId());
+        List<ItemRequestDtoResponse> responseList = itemRequestService.getRequestsInfo(user.getId(), null, 0, 20);
         assertTrue(responseList.isEmpty());
-        verify(requestRepository).findAllByRequestorId(anyLong());
+        verify(requestRepository).findOwnFeed(user.getId(), null, PageRequest.of(0, 20));
     }
 
     @Test
     void getRequestsInfo_whenUserNotFound_thenExceptionThrown() {
-        when(userRepository.findById(anyLong())).thenThrow(new ObjectNotFoundException("User not found"));
+        doThrow(new ObjectNotFoundException("User not found")).when(existence).requireUser(1L, "User not found");
 
-        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class, () -> itemRequestService.getRequestsInfo(1L));
+        ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class, () ->
+                itemRequestService.getRequestsInfo(1L, null, 0, 20));
         assertEquals("User not found", ex.getMessage());
+        verify(requestRepository, never()).findOwnFeed(anyLong(), any(), any());
     }
 
     @Test
     void getRequestInfo_whenUserAndRequestFound_thenReturnRequestsList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         item.setItemRequest(itemRequest);
-        when(itemRepository.findByItemRequestId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.findByItemRequestId(anyLong()))
+                .thenReturn(Collections.singletonList(ItemMapper.toItemDto(item)));
 
         ItemRequestDtoResponse responseRequest = itemRequestService.getRequestInfo(user.getId(), itemRequestDto.getId());
 
         assertNotNull(responseRequest);
+        assertNotNull(responseRequest.getSuggestions());
         verify(requestRepository).findById(anyLong());
+        verify(requestRepository).findSuggestedItems(itemRequestDto.getId());
         verify(itemRepository).findByItemRequestId(anyLong());
     }
 
     @Test
     void getRequestInfo_whenRequestNotFound_thenExceptionThrown() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
         when(requestRepository.findById(anyLong())).thenThrow(new ObjectNotFoundException("Request not found"));
 
         ObjectNotFoundException ex = assertThrows(ObjectNotFoundException.class, () ->
@@ -121,10 +134,20 @@ class ItemRequestServiceImplTest {
     @Test
     void getRequestsListTest() {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
-        when(requestRepository.findAllPageable(anyLong(), any())).thenReturn(Collections.singletonList(itemRequest));
+        when(requestRepository.findOthersFeed(anyLong(), any(), any()))
+                .thenReturn(Collections.singletonList(ItemRequestMapper.toItemRequestDtoResponse(itemRequest)));
 
-        List<ItemRequestDtoResponse> items = itemRequestService.getRequestsList(1L, 0, 20);
+        List<ItemRequestDtoResponse> items = itemRequestService.getRequestsList(1L, null, 40, 20);
         assertEquals(1, items.size());
-        verify(requestRepository).findAllPageable(anyLong(), any());
+        verify(requestRepository).findOthersFeed(1L, null, PageRequest.of(2, 20));
+    }
+
+    @Test
+    void getRequestsList_whenCursorGiven_thenFirstPageAfterCursor() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.now(), 5L);
+
+        itemRequestService.getRequestsList(1L, after, 40, 20);
+
+        verify(requestRepository).findOthersFeed(1L, after, PageRequest.of(0, 20));
     }
 }
\ No newline at end of file
@@ -8,18 +8,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.export.UserExporter;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UserController.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -28,6 +32,8 @@ class UserControllerTest {
     private final MockMvc mvc;
     @MockBean
     UserService userService;
+    @MockBean
+    UserExporter userExporter;
 
     private final UserDto userDto = new UserDto(
             1L,
@@ -36,17 +42,44 @@ class UserControllerTest {
 
     @Test
     void getAllUsersTest() throws Exception {
-        when(userService.getAllUsers()).thenReturn(Collections.singletonList(userDto));
+        when(userService.getAllUsers(null, 0, 20)).thenReturn(Collections.singletonList(userDto));
 
         mvc.perform(get("/users")
                     .contentType(MediaType.APPLICATION_JSON)
                     .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("user"))
                 .andExpect(jsonPath("$[0].email").value("user@user.ru"));
     }
 
+    @Test
+    void getAllUsers_whenPageFull_thenNextCursorReturned() throws Exception {
+        when(userService.getAllUsers(1L, 0, 1)).thenReturn(List.of(new UserDto(2L, "next", "next@user.ru")));
+
+        mvc.perform(get("/users?size=1&after=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, "2"))
+                .andExpect(jsonPath("$[0].id").value(2L));
+    }
+
+    @Test
+    void streamUsersTest() throws Exception {
+        when(userExporter.streamUsers())
+                .thenReturn(out -> out.write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[{\"id\":1}]"));
+    }
+
     @Test
     void getById_whenUserFound_thenReturnUser() throws Exception {
         when(userService.getById(1L)).thenReturn(userDto);
@@ -7,13 +7,16 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.existence.ExistenceService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +26,8 @@ import static org.mockito.Mockito.*;
 class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
+    @Mock
+    ExistenceService existence;
     @InjectMocks
     UserServiceImpl userService;
     @Captor
@@ -30,9 +35,20 @@ class UserServiceImplTest {
 
     @Test
     void getAllUsers_whenInvoked_thenReturnEmptyList() {
-        when(userRepository.findAll())
+        when(userRepository.findAllByOrderByIdAsc(PageRequest.of(1, 10)))
                 .thenReturn(Collections.emptyList());
-        assertTrue(userService.getAllUsers().isEmpty());
+        assertTrue(userService.getAllUsers(null, 10, 10).isEmpty());
+    }
+
+    @Test
+    void getAllUsers_whenAfterGiven_thenKeysetPageReturned() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(5L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new User(6L, "User", "test@test.ru")));
+
+        List<UserDto> users = userService.getAllUsers(5L, 40, 2);
+
+        assertEquals(List.of(new UserDto(6L, "User", "test@test.ru")), users);
+        verify(userRepository, never()).findAllByOrderByIdAsc(any());
     }
 
     @Test
@@ -65,6 +81,7 @@ class UserServiceImplTest {
 
         assertEquals(expectedUserDto, actualUserDto);
         verify(userRepository).save(any());
+        verify(existence).userCreated(1L);
     }
 
     @Test
@@ -99,5 +116,6 @@ class UserServiceImplTest {
         userService.delete(1L);
 
         verify(userRepository).delete(any());
+        verify(existence).userDeleted(1L);
     }
 }
\ No newline at end of file